@@ -0,0 +1,28 @@
+#!/bin/sh
+# native 바이너리 smoke test: 기동 시간, RSS 출력 후 /v1/members, /v2/members 호출
+# usage: native-smoke-test.sh <binary> [port]
+set -e
+
+BINARY=${1:?binary path}
+PORT=${2:-18080}
+BASE_URL="http://localhost:$PORT"
+
+START=$(date +%s%3N)
+"$BINARY" --server.port="$PORT" > build/native-smoke-test.log 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+
+until curl -sf "$BASE_URL/actuator/health" > /dev/null; do
+  if ! kill -0 $PID 2>/dev/null; then
+    echo "application exited"; cat build/native-smoke-test.log; exit 1
+  fi
+  sleep 0.05
+done
+READY=$(date +%s%3N)
+
+curl -sf "$BASE_URL/v1/members?teamName=teamA" > /dev/null
+curl -sf "$BASE_URL/v2/members?teamName=teamB&page=0&size=5&sort=age,desc" > /dev/null
+
+echo "startup: $((READY - START)) ms"
+echo "rss: $(ps -o rss= -p $PID | tr -d ' ') KB"
+echo "smoke test passed"
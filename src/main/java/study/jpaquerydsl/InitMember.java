@@ -1,11 +1,16 @@
 package study.jpaquerydsl;
 
-import jakarta.annotation.PostConstruct;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import study.jpaquerydsl.entity.Member;
 import study.jpaquerydsl.entity.Team;
@@ -16,10 +21,37 @@ import study.jpaquerydsl.entity.Team;
 public class InitMember {
 
     private final InitMemberService initMemberService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @PostConstruct
+    private final Object readinessLock = new Object();
+    private boolean initialized; // readinessLock 안에서만 읽고 씀
+
+    // 기동을 막지 않도록 별도 스레드에서 데이터 입력
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
     public void init() {
         initMemberService.init();
+        synchronized (readinessLock) {
+            initialized = true;
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        }
+    }
+
+    /**
+     * 데이터 입력이 끝나기 전에 스프링이 발행한 ACCEPTING_TRAFFIC을 REFUSING_TRAFFIC으로 되돌림
+     * initialized 확인과 발행을 init()과 같은 락 안에서 해서
+     * 입력 완료의 ACCEPTING_TRAFFIC보다 REFUSING_TRAFFIC이 늦게 발행되지 않도록 함
+     */
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getSource() == this || event.getState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return;
+        }
+        synchronized (readinessLock) {
+            if (!initialized) {
+                AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+            }
+        }
     }
 
     @Component
@@ -1,21 +1,63 @@
 package study.jpaquerydsl;
 
+import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.SQLTemplatesRegistry;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
 import jakarta.persistence.EntityManager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import study.jpaquerydsl.repository.QueryDeadline;
+import study.jpaquerydsl.repository.QueryDeadlineListener;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+@EnableAsync
+@EnableScheduling // MemberArchiver, MemberPartitionManager
 @SpringBootApplication
+@ImportRuntimeHints(MemberRuntimeHints.class)
 public class JpaQuerydslApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(JpaQuerydslApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(JpaQuerydslApplication.class, args);
+		if (Boolean.getBoolean("app.cds.training")) { // CDS 아카이브 생성용 실행은 기동 직후 종료 (gradle cdsArchive)
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 	@Bean
 	public JPAQueryFactory queryFactory(EntityManager em) {
-		return new JPAQueryFactory(em);
+		// 요청 마감 시간이 있으면 모든 쿼리에 남은 시간만큼 타임아웃 설정 (취소 대상으로 세션 기록)
+		return new JPAQueryFactory(em) {
+			@Override
+			public JPAQuery<?> query() {
+				return QueryDeadline.apply(super.query(), em);
+			}
+		};
+	}
+
+	// 스프링 트랜잭션 안에서만 사용 가능 (SpringConnectionProvider)
+	@Bean
+	public SQLQueryFactory sqlQueryFactory(DataSource dataSource) throws SQLException {
+		SQLTemplates templates;
+		try (Connection connection = dataSource.getConnection()) {
+			templates = new SQLTemplatesRegistry().getTemplates(connection.getMetaData());
+		}
+		Configuration configuration = new Configuration(templates);
+		configuration.setExceptionTranslator(new SpringExceptionTranslator());
+		configuration.addListener(new QueryDeadlineListener()); // 요청 마감 시간 (MemberWindowPageRepository, MemberArchiveSearchRepository 등)
+		return new SQLQueryFactory(configuration, new SpringConnectionProvider(dataSource));
 	}
 
 }
@@ -0,0 +1,72 @@
+package study.jpaquerydsl;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import study.jpaquerydsl.dto.*;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.repository.OffsetPageRequest;
+
+import java.sql.Connection;
+import java.util.List;
+
+/**
+ * native image에서 리플렉션으로 접근하는 타입 등록
+ */
+public class MemberRuntimeHints implements RuntimeHintsRegistrar {
+
+    // Projections.constructor / bean / fields 대상
+    private static final List<Class<?>> PROJECTIONS = List.of(
+            MemberTeamDto.class,
+            MemberDto.class,
+            UserDto.class,
+            MemberRankDto.class,
+            MemberAgeStatDto.class
+    );
+
+    // 컴파일 시 생성되는 Q클래스
+    private static final List<String> QUERY_TYPES = List.of(
+            "study.jpaquerydsl.entity.QMember",
+            "study.jpaquerydsl.entity.QTeam",
+            "study.jpaquerydsl.entity.QHello",
+            "study.jpaquerydsl.entity.QMemberTeamView",
+            "study.jpaquerydsl.dto.QMemberDto"
+    );
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (Class<?> projection : PROJECTIONS) {
+            hints.reflection().registerType(projection,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS,
+                    MemberCategory.DECLARED_FIELDS);
+        }
+        for (String queryType : QUERY_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, queryType,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.PUBLIC_FIELDS);
+        }
+
+        hints.reflection().registerType(MemberTeamDtoSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(MemberFieldsDtoSerializer.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Member.team 지연 로딩 대상
+        // native image에서는 런타임에 프록시 클래스를 만들 수 없으므로 빌드 시 bytecode enhancement로 처리 (build.gradle hibernate 블록)
+        hints.reflection().registerType(Team.class,
+                MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                MemberCategory.INVOKE_PUBLIC_METHODS,
+                MemberCategory.DECLARED_FIELDS);
+
+        // /v2/members 응답(Page) 직렬화
+        for (Class<?> page : List.of(PageImpl.class, PageRequest.class, OffsetPageRequest.class, Sort.class, Sort.Order.class)) {
+            hints.reflection().registerType(page, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+
+        // 커넥션 점유 시간 측정 (ConnectionHoldTimeDataSource)
+        hints.proxies().registerJdkProxy(Connection.class);
+    }
+
+}
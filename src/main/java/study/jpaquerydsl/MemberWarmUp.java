@@ -0,0 +1,180 @@
+package study.jpaquerydsl;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 기동 직후 느린 구간(JIT, Hibernate 쿼리 plan 캐시, 커넥션 풀)을 트래픽 전에 미리 데움
+ * - 커넥션 풀을 minimum-idle 개수만큼 채움
+ * - member.warm-up.requests의 대표 검색(/v1, /v2 + 조건, 페이징)을 실제 HTTP로 반복 호출 (필터, 직렬화까지)
+ * ApplicationRunner라 끝나기 전에는 ReadinessState.ACCEPTING_TRAFFIC이 발행되지 않음 (readiness = REFUSING_TRAFFIC)
+ * 실패해도 기동은 계속함 (로그만 남김)
+ * 요청마다 HEADER를 붙여서 FirstRequestTimer가 첫 요청으로 세지 않도록 함
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.warm-up.enabled", havingValue = "true")
+public class MemberWarmUp implements ApplicationRunner {
+
+    public static final String HEADER = "X-Warm-Up";
+
+    private final ApplicationContext context;
+    private final DataSource dataSource;
+    private final List<String> requests;
+    private final int iterations;
+    private final int threads;
+    private final Duration maxDuration;
+
+    private final Timer duration;
+    private final Counter succeeded;
+    private final Counter failed;
+
+    public MemberWarmUp(ApplicationContext context,
+                        DataSource dataSource,
+                        MeterRegistry meterRegistry,
+                        Environment environment,
+                        @Value("${member.warm-up.iterations:200}") int iterations,
+                        @Value("${member.warm-up.threads:4}") int threads,
+                        @Value("${member.warm-up.max-duration:60s}") Duration maxDuration) {
+        this.context = context;
+        this.dataSource = dataSource;
+        // url에 쉼표가 들어가므로(sort=age,desc) @Value 대신 yml 목록으로 바인딩
+        this.requests = Binder.get(environment)
+                .bind("member.warm-up.requests", Bindable.listOf(String.class))
+                .orElse(List.of());
+        this.iterations = iterations;
+        this.threads = threads;
+        this.maxDuration = maxDuration;
+        this.duration = Timer.builder("member.warm-up.duration").register(meterRegistry);
+        this.succeeded = Counter.builder("member.warm-up.requests").tag("outcome", "success").register(meterRegistry);
+        this.failed = Counter.builder("member.warm-up.requests").tag("outcome", "failure").register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        try {
+            int connections = fillPool();
+            int sent = replay(start + maxDuration.toNanos());
+            log.info("warm-up finished in {}ms (connections = {}, requests = {}, failed = {})",
+                    Duration.ofNanos(System.nanoTime() - start).toMillis(), connections, sent, (long) failed.count());
+        } catch (SQLException | RuntimeException e) {
+            log.warn("warm-up failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            duration.record(Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    // 풀 크기만큼 커넥션을 동시에 빌려서 물리 연결을 미리 만듦
+    int fillPool() throws SQLException {
+        int size = dataSource.isWrapperFor(HikariDataSource.class) // ConnectionHoldTimeDataSource로 감싸져 있음
+                ? dataSource.unwrap(HikariDataSource.class).getMinimumIdle()
+                : threads;
+        List<Connection> connections = new ArrayList<>(size);
+        try {
+            for (int i = 0; i < size; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        return connections.size();
+    }
+
+    // threads개 스레드가 requests 목록을 iterations번 나눠서 호출, deadline이 지나면 중단
+    int replay(long deadline) throws InterruptedException {
+        if (requests.isEmpty()) {
+            return 0;
+        }
+        if (!(context instanceof WebServerApplicationContext web) || web.getWebServer() == null) {
+            log.info("warm-up skipped requests (no web server)");
+            return 0;
+        }
+        String baseUrl = "http://localhost:" + web.getWebServer().getPort();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        int total = requests.size() * iterations;
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger sent = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "member-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int index = next.getAndIncrement(); index < total && System.nanoTime() < deadline; index = next.getAndIncrement()) {
+                        send(client, baseUrl + requests.get(index % requests.size()));
+                        sent.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return sent.get();
+    }
+
+    private void send(HttpClient client, String url) throws InterruptedException {
+        try {
+            HttpResponse<Void> response = client.send(
+                    HttpRequest.newBuilder(URI.create(url)).header(HEADER, "true").timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() == 200) {
+                succeeded.increment();
+                return;
+            }
+            if (failed.count() == 0) { // 같은 실패가 반복되므로 처음 한 번만
+                log.warn("warm-up request failed. {} {}", response.statusCode(), url);
+            }
+        } catch (IOException e) {
+            if (failed.count() == 0) {
+                log.warn("warm-up request failed. {}", url, e);
+            }
+        }
+        failed.increment();
+    }
+
+}
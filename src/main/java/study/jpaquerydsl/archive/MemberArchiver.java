@@ -0,0 +1,131 @@
+package study.jpaquerydsl.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.jpaquerydsl.listener.MemberDataChangedEvent;
+import study.jpaquerydsl.listener.MemberDataVersion;
+import study.jpaquerydsl.repository.MemberTeamViewWriter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 오래된 회원(최근 keepRecent명보다 member_id가 작은 회원)을 member_archive로 배치 이동
+ * - 배치마다 별도 트랜잭션: 대상 행을 for update로 잠그고 insert ... select 후 delete
+ * - member_team(읽기 모델)에서도 제거, 팀 소속(team.member_count)은 그대로
+ * - member 파티션을 쓰면 다 옮겨진 범위의 파티션은 drop (delete로 비운 공간 회수)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.archive.enabled", havingValue = "true")
+public class MemberArchiver {
+
+    private static final String SELECT_COLD =
+            "select member_id from member where member_id < ? order by member_id limit ? for update";
+
+    private static final String COPY =
+            "insert into member_archive (member_id, username, age, team_id, archived_at)" +
+            " select member_id, username, age, team_id, now() from member where member_id in (%s)";
+
+    private static final String DELETE =
+            "delete from member where member_id in (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<MemberPartitionManager> partitionManager;
+    private final long keepRecent;
+    private final int batchSize;
+    private final boolean readModelEnabled;
+
+    public MemberArchiver(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          ApplicationEventPublisher eventPublisher,
+                          ObjectProvider<MemberPartitionManager> partitionManager,
+                          @Value("${member.archive.keep-recent:1000000}") long keepRecent,
+                          @Value("${member.archive.batch-size:1000}") int batchSize,
+                          @Value("${member.read-model.enabled:false}") boolean readModelEnabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.partitionManager = partitionManager;
+        this.keepRecent = keepRecent;
+        this.batchSize = batchSize;
+        this.readModelEnabled = readModelEnabled;
+    }
+
+    @Scheduled(initialDelayString = "${member.archive.interval-ms:60000}", fixedDelayString = "${member.archive.interval-ms:60000}")
+    public void run() {
+        try {
+            int moved = archive();
+            if (moved > 0) {
+                log.info("member archived. moved={}", moved);
+            }
+        } catch (RuntimeException e) {
+            log.warn("member archive failed", e);
+        }
+    }
+
+    /**
+     * 옮긴 회원 수를 반환
+     */
+    public int archive() {
+        Long maxId = jdbcTemplate.queryForObject("select max(member_id) from member", Long.class);
+        if (maxId == null) {
+            return 0;
+        }
+        long cutoff = maxId - keepRecent + 1; // member_id < cutoff 이면 오래된 회원
+
+        int moved = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> moveBatch(cutoff));
+            moved += batch;
+        } while (batch == batchSize);
+
+        partitionManager.ifAvailable(manager -> manager.dropBelow(cutoff));
+        return moved;
+    }
+
+    private int moveBatch(long cutoff) {
+        List<Long> memberIds = jdbcTemplate.queryForList(SELECT_COLD, Long.class, cutoff, batchSize);
+        if (memberIds.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(memberIds.size(), "?"));
+        Object[] args = memberIds.toArray();
+        jdbcTemplate.update(COPY.formatted(placeholders), args);
+        jdbcTemplate.update(DELETE.formatted(placeholders), args);
+
+        if (readModelEnabled) {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                MemberTeamViewWriter.delete(connection, memberIds);
+                return null;
+            });
+        }
+
+        // Hibernate 이벤트를 거치지 않으므로 ETag 버전 증가, 커밋 후 이벤트 발행을 직접
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            MemberDataVersion.increment(connection);
+            return null;
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(MemberDataChangedEvent.bulk());
+            }
+        });
+        return memberIds.size();
+    }
+
+}
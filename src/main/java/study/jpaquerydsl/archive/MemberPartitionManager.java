@@ -0,0 +1,129 @@
+package study.jpaquerydsl.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * member 테이블을 member_id 범위로 RANGE 파티션 (MySQL)
+ * - 파티션이 없으면 size 단위 범위 파티션 + 마지막 pmax(maxvalue)로 나눔
+ * - 주기적으로 pmax를 나눠서 빈 범위 파티션을 headroom개 미리 만들어둠
+ * - MemberArchiver가 다 옮긴 범위의 파티션은 drop
+ * member_id 조건이 있는 쿼리(id 조회, in 조회, 아카이브 대상 조회)는 해당 파티션만 읽음 (partition pruning)
+ * search, searchPage는 member_id 조건이 없어서 모든 파티션을 읽음 (pruning 없음)
+ * 아카이브 후 drop된 파티션만큼 읽는 범위가 줄어듦
+ * 파티션 테이블은 외래 키를 가질 수 없어서 처음 파티션할 때 member.team_id 외래 키를 drop
+ * (team_id 인덱스 idx_member_team_id는 Member 매핑에 따로 있어서 유지됨)
+ * 파티션 DDL은 암묵적으로 커밋되므로 트랜잭션 밖에서 호출
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.partition.enabled", havingValue = "true")
+public class MemberPartitionManager {
+
+    private static final String MAX_VALUE = "MAXVALUE";
+
+    private static final String PARTITIONS =
+            "select partition_name, partition_description from information_schema.partitions" +
+            " where table_schema = database() and table_name = 'member' and partition_name is not null" +
+            " order by partition_ordinal_position";
+
+    private static final String FOREIGN_KEYS =
+            "select constraint_name from information_schema.key_column_usage" +
+            " where table_schema = database() and table_name = 'member' and referenced_table_name is not null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long size;
+    private final int headroom;
+
+    public MemberPartitionManager(JdbcTemplate jdbcTemplate,
+                                  @Value("${member.partition.size:1000000}") long size,
+                                  @Value("${member.partition.headroom:2}") int headroom) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.size = size;
+        this.headroom = headroom;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ensurePartitions();
+    }
+
+    @Scheduled(initialDelayString = "${member.partition.check-interval-ms:600000}", fixedDelayString = "${member.partition.check-interval-ms:600000}")
+    public synchronized void ensurePartitions() {
+        List<Partition> partitions = partitions();
+        Long maxId = jdbcTemplate.queryForObject("select coalesce(max(member_id), 0) from member", Long.class);
+        long target = (maxId / size + 1 + headroom) * size; // 마지막 범위 파티션의 상한
+
+        long lastBound = partitions.stream()
+                .filter(partition -> !partition.isMax())
+                .mapToLong(Partition::upperBound)
+                .max()
+                .orElse(0);
+        if (!partitions.isEmpty() && lastBound >= target) {
+            return;
+        }
+
+        StringJoiner ranges = new StringJoiner(", ", "(", ")");
+        for (long bound = lastBound + size; bound <= target; bound += size) {
+            ranges.add("partition p" + bound + " values less than (" + bound + ")");
+        }
+        ranges.add("partition pmax values less than maxvalue");
+
+        if (partitions.isEmpty()) {
+            dropForeignKeys();
+        }
+        String ddl = partitions.isEmpty()
+                ? "alter table member partition by range (member_id) " + ranges
+                : "alter table member reorganize partition pmax into " + ranges;
+        jdbcTemplate.execute(ddl);
+        log.info("member partitions extended to {}", target);
+    }
+
+    // 상한이 cutoff 이하인 빈 파티션을 drop (MemberArchiver가 이미 옮긴 범위)
+    public synchronized void dropBelow(long cutoff) {
+        for (Partition partition : partitions()) {
+            if (partition.isMax() || partition.upperBound() > cutoff) {
+                continue;
+            }
+            Long rows = jdbcTemplate.queryForObject("select count(*) from member partition (" + partition.name() + ")", Long.class);
+            if (rows != null && rows == 0) {
+                jdbcTemplate.execute("alter table member drop partition " + partition.name());
+                log.info("member partition dropped. partition={}", partition.name());
+            }
+        }
+    }
+
+    // hibernate가 만든 member.team_id 외래 키 (이름은 FK + 해시)
+    private void dropForeignKeys() {
+        for (String name : jdbcTemplate.queryForList(FOREIGN_KEYS, String.class)) {
+            jdbcTemplate.execute("alter table member drop foreign key " + name);
+            log.info("member foreign key dropped for partitioning. constraint={}", name);
+        }
+    }
+
+    public List<Partition> partitions() {
+        return jdbcTemplate.query(PARTITIONS, (rs, rowNum) -> new Partition(rs.getString(1), rs.getString(2)));
+    }
+
+    public record Partition(String name, String description) {
+
+        boolean isMax() {
+            return MAX_VALUE.equalsIgnoreCase(description);
+        }
+
+        long upperBound() {
+            return Long.parseLong(description);
+        }
+
+    }
+
+}
@@ -0,0 +1,41 @@
+package study.jpaquerydsl.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 같은 JVM 안의 컨텍스트끼리 무효화 메시지 전달 (테스트용)
+ * cluster 이름이 같은 transport끼리 send 호출 스레드에서 바로 전달
+ */
+public class InProcessInvalidationTransport implements InvalidationTransport {
+
+    private static final Map<String, List<Consumer<InvalidationMessage>>> CLUSTERS = new ConcurrentHashMap<>();
+
+    private final List<Consumer<InvalidationMessage>> members;
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    public InProcessInvalidationTransport(String cluster) {
+        this.members = CLUSTERS.computeIfAbsent(cluster, key -> new CopyOnWriteArrayList<>());
+    }
+
+    @Override
+    public void send(InvalidationMessage message) {
+        members.forEach(member -> member.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+        members.add(listener);
+    }
+
+    @Override
+    public void close() {
+        members.removeAll(listeners);
+        listeners.clear();
+    }
+
+}
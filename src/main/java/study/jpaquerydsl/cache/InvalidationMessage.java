@@ -0,0 +1,21 @@
+package study.jpaquerydsl.cache;
+
+import java.util.Set;
+
+/**
+ * 노드 간 무효화 메시지
+ * version은 보낸 노드에서 1씩 증가, 받는 쪽은 노드별로 마지막 버전 이하면 무시 (중복, 순서 뒤바뀜)
+ * changes는 이 메시지로 묶인 커밋된 변경 수
+ * memberIds, teamIds는 바뀐 회원, 팀 (받는 노드의 검색 인덱스가 이것만 다시 읽음)
+ * bulk면 대상을 특정할 수 없는 변경이 섞여 있음 (벌크 변경, id가 MAX_IDS를 넘음), 받는 노드는 전체 재적재
+ */
+public record InvalidationMessage(String nodeId, long version, int changes, Set<Long> memberIds, Set<Long> teamIds, boolean bulk) {
+
+    public static final int MAX_IDS = 100; // UDP 패킷 하나에 들어가도록 (MulticastInvalidationTransport)
+
+    public InvalidationMessage {
+        memberIds = Set.copyOf(memberIds);
+        teamIds = Set.copyOf(teamIds);
+    }
+
+}
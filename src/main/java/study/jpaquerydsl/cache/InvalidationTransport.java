@@ -0,0 +1,18 @@
+package study.jpaquerydsl.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * MemberNearCache의 무효화 메시지 전송 (자기가 보낸 메시지도 받을 수 있음)
+ * 전달이 보장되지 않아도 됨, 놓친 무효화는 near-cache ttl이 지나면 반영
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    void send(InvalidationMessage message);
+
+    void subscribe(Consumer<InvalidationMessage> listener);
+
+    @Override
+    void close();
+
+}
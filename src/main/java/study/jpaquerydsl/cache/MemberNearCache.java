@@ -0,0 +1,265 @@
+package study.jpaquerydsl.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.listener.MemberDataChangedEvent;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 노드별 검색 결과 캐시 + 노드 간 무효화
+ * - 이 노드에서 커밋된 변경(MemberDataChangedEvent)은 바로 비우고, batch-interval마다 바뀐 회원, 팀 id를 모아서 다른 노드에 메시지 하나로 전송
+ * - 다른 노드의 메시지를 받으면 비우고 id마다 MemberDataChangedEvent.remote(type, id) 발행 (ETag 버전, 검색 인덱스는 해당 id만 갱신)
+ *   벌크 변경이 섞였거나 id가 InvalidationMessage.MAX_IDS를 넘으면 MemberDataChangedEvent.remote() 하나 (검색 인덱스 전체 재적재)
+ * - 메시지는 노드별 버전으로 중복, 순서 뒤바뀜을 무시
+ * 다른 노드의 쓰기는 batch-interval + 전송 시간 안에 보이고, 메시지를 놓쳐도 ttl 안에는 보임
+ * 검색 결과에 팀 이름이 들어 있으므로 member, team 변경 모두 전체를 비움
+ */
+@Slf4j
+@Component
+public class MemberNearCache {
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationTransport transport; // null이면 이 노드만
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Map<Object, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong(); // 비울 때마다 증가
+    private final AtomicLong sentVersion = new AtomicLong();
+    private final Object pendingLock = new Object();
+    private Pending pending = new Pending(); // 아직 보내지 않은 변경, pendingLock 안에서만 읽고 씀
+    private final Map<String, Long> receivedVersions = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+    private final ScheduledExecutorService sender;
+
+    @Autowired
+    public MemberNearCache(ObjectProvider<InvalidationTransport> transport,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${member.near-cache.enabled:false}") boolean enabled,
+                           @Value("${member.near-cache.ttl:5s}") Duration ttl,
+                           @Value("${member.near-cache.max-entries:10000}") int maxEntries,
+                           @Value("${member.near-cache.batch-interval:50ms}") Duration batchInterval) {
+        this(transport.getIfAvailable(), eventPublisher, meterRegistry, enabled, ttl, maxEntries, batchInterval);
+    }
+
+    MemberNearCache(InvalidationTransport transport,
+                    ApplicationEventPublisher eventPublisher,
+                    MeterRegistry meterRegistry,
+                    boolean enabled,
+                    Duration ttl,
+                    int maxEntries,
+                    Duration batchInterval) {
+        this.transport = enabled ? transport : null;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.hits = Counter.builder("member.near-cache.hit").register(meterRegistry);
+        this.misses = Counter.builder("member.near-cache.miss").register(meterRegistry);
+        this.localInvalidations = Counter.builder("member.near-cache.invalidation").tag("source", "local").register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("member.near-cache.invalidation").tag("source", "remote").register(meterRegistry);
+
+        if (this.transport == null) {
+            this.sender = null;
+            return;
+        }
+        this.transport.subscribe(this::onMessage);
+        this.sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "member-near-cache-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = batchInterval.toMillis();
+        this.sender.scheduleWithFixedDelay(this::sendPending, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 캐시에 있으면 반환, 없으면 loader로 조회해서 저장
+     * 조회하는 동안 비워졌으면 저장하지 않음 (무효화 전에 읽은 값이 남지 않도록)
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Supplier<T> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        long current = generation.get();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.generation() == current && System.nanoTime() - entry.loadedAt() < ttlNanos) {
+            hits.increment();
+            return (T) entry.value();
+        }
+        misses.increment();
+        long loadedAt = System.nanoTime();
+        T value = loader.get();
+        if (generation.get() == current && hasRoom()) {
+            entries.put(key, new Entry(value, current, loadedAt));
+        }
+        return value;
+    }
+
+    // 커밋 후 발행되는 이벤트
+    @EventListener(MemberDataChangedEvent.class)
+    public void onChanged(MemberDataChangedEvent event) {
+        if (!enabled || event.isRemote()) {
+            return; // 다른 노드에서 받은 변경은 onMessage에서 이미 비움
+        }
+        clear();
+        localInvalidations.increment();
+        if (transport != null) {
+            synchronized (pendingLock) {
+                pending.add(event);
+            }
+        }
+    }
+
+    void onMessage(InvalidationMessage message) {
+        if (nodeId.equals(message.nodeId())) {
+            return;
+        }
+        long previous = receivedVersions.getOrDefault(message.nodeId(), 0L);
+        if (message.version() <= previous
+                || receivedVersions.merge(message.nodeId(), message.version(), Math::max) != message.version()) {
+            return; // 이미 반영한 버전
+        }
+        clear();
+        remoteInvalidations.increment();
+        if (message.bulk()) {
+            eventPublisher.publishEvent(MemberDataChangedEvent.remote());
+            return;
+        }
+        message.memberIds().forEach(id -> eventPublisher.publishEvent(MemberDataChangedEvent.remote(Member.class, id)));
+        message.teamIds().forEach(id -> eventPublisher.publishEvent(MemberDataChangedEvent.remote(Team.class, id)));
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    // 모인 변경을 메시지 하나로 전송
+    void sendPending() {
+        Pending sending;
+        synchronized (pendingLock) {
+            if (pending.changes == 0) {
+                return;
+            }
+            sending = pending;
+            pending = new Pending();
+        }
+        try {
+            transport.send(sending.message(nodeId, sentVersion.incrementAndGet()));
+        } catch (RuntimeException e) {
+            log.warn("near cache invalidation send failed", e);
+            synchronized (pendingLock) {
+                pending.merge(sending); // 다음 주기에 다시 전송
+            }
+        }
+    }
+
+    // transport는 빈이라 스프링이 닫음
+    @PreDestroy
+    public void close() {
+        if (sender != null) {
+            sender.shutdownNow();
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    // 가득 차면 만료된 항목부터 정리, 그래도 차 있으면 저장하지 않음
+    private boolean hasRoom() {
+        if (entries.size() < maxEntries) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long current = generation.get();
+        entries.values().removeIf(entry -> entry.generation() != current || now - entry.loadedAt() >= ttlNanos);
+        return entries.size() < maxEntries;
+    }
+
+    private record Entry(Object value, long generation, long loadedAt) {
+    }
+
+    /**
+     * 한 주기 동안 모인 변경 (id가 MAX_IDS를 넘으면 더 모으지 않고 bulk)
+     */
+    private static final class Pending {
+
+        private final Set<Long> memberIds = new HashSet<>();
+        private final Set<Long> teamIds = new HashSet<>();
+        private int changes;
+        private boolean bulk;
+
+        void add(MemberDataChangedEvent event) {
+            changes++;
+            if (event.getEntityType() == Member.class) {
+                addId(memberIds, (Long) event.getId());
+            } else if (event.getEntityType() == Team.class) {
+                addId(teamIds, (Long) event.getId());
+            } else {
+                markBulk();
+            }
+        }
+
+        void merge(Pending other) {
+            changes += other.changes;
+            if (other.bulk) {
+                markBulk();
+            }
+            other.memberIds.forEach(id -> addId(memberIds, id));
+            other.teamIds.forEach(id -> addId(teamIds, id));
+        }
+
+        InvalidationMessage message(String nodeId, long version) {
+            return new InvalidationMessage(nodeId, version, changes, memberIds, teamIds, bulk);
+        }
+
+        private void addId(Set<Long> ids, Long id) {
+            if (bulk) {
+                return;
+            }
+            ids.add(id);
+            if (ids.size() > InvalidationMessage.MAX_IDS) {
+                markBulk();
+            }
+        }
+
+        private void markBulk() {
+            bulk = true;
+            memberIds.clear();
+            teamIds.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package study.jpaquerydsl.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.net.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * UDP 멀티캐스트로 무효화 메시지 전달 (같은 네트워크의 노드끼리, 별도 브로커 없음)
+ * 메시지 = nodeId(UTF) + version(long) + changes(int) + bulk(boolean) + memberIds, teamIds(개수(int) + long 목록), 유실될 수 있음
+ */
+@Slf4j
+public class MulticastInvalidationTransport implements InvalidationTransport {
+
+    private static final int MAX_MESSAGE_SIZE = 2048; // id는 최대 InvalidationMessage.MAX_IDS개씩
+
+    private final InetSocketAddress group;
+    private final MulticastSocket socket;
+    private volatile boolean closed;
+
+    // networkInterface가 비어 있으면 OS 기본 인터페이스
+    public MulticastInvalidationTransport(String group, int port, String networkInterface) throws IOException {
+        this.group = new InetSocketAddress(InetAddress.getByName(group), port);
+        this.socket = new MulticastSocket(port);
+        NetworkInterface netIf = networkInterface.isBlank() ? null : NetworkInterface.getByName(networkInterface);
+        if (netIf != null) {
+            this.socket.setNetworkInterface(netIf);
+        }
+        this.socket.joinGroup(this.group, netIf);
+    }
+
+    @Override
+    public void send(InvalidationMessage message) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeUTF(message.nodeId());
+                out.writeLong(message.version());
+                out.writeInt(message.changes());
+                out.writeBoolean(message.bulk());
+                writeIds(out, message.memberIds());
+                writeIds(out, message.teamIds());
+            }
+            socket.send(new DatagramPacket(bytes.toByteArray(), bytes.size(), group));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // MemberNearCache가 다음 주기에 다시 전송
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        Thread receiver = new Thread(() -> receive(listener), "member-near-cache-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        socket.close();
+    }
+
+    private static InvalidationMessage read(DataInputStream in) throws IOException {
+        String nodeId = in.readUTF();
+        long version = in.readLong();
+        int changes = in.readInt();
+        boolean bulk = in.readBoolean();
+        Set<Long> memberIds = readIds(in);
+        Set<Long> teamIds = readIds(in);
+        return new InvalidationMessage(nodeId, version, changes, memberIds, teamIds, bulk);
+    }
+
+    private static void writeIds(DataOutputStream out, Set<Long> ids) throws IOException {
+        out.writeInt(ids.size());
+        for (Long id : ids) {
+            out.writeLong(id);
+        }
+    }
+
+    private static Set<Long> readIds(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0 || size > InvalidationMessage.MAX_IDS) {
+            throw new IOException("invalid id count: " + size);
+        }
+        Set<Long> ids = new HashSet<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            ids.add(in.readLong());
+        }
+        return ids;
+    }
+
+    private void receive(Consumer<InvalidationMessage> listener) {
+        byte[] buffer = new byte[MAX_MESSAGE_SIZE];
+        while (!closed) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(packet.getData(), 0, packet.getLength()));
+                listener.accept(read(in));
+            } catch (IOException | RuntimeException e) {
+                if (!closed) {
+                    log.warn("invalidation receive failed", e);
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package study.jpaquerydsl.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * member.near-cache.enabled=true 일 때 노드 간 무효화 transport 등록
+ * - multicast: 같은 네트워크의 노드끼리 UDP multicast (기본)
+ * - in-process: 같은 JVM 안의 컨텍스트끼리 (테스트용)
+ */
+@Configuration
+@ConditionalOnProperty(name = "member.near-cache.enabled", havingValue = "true")
+public class NearCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "member.near-cache.transport", havingValue = "multicast", matchIfMissing = true)
+    public InvalidationTransport multicastInvalidationTransport(@Value("${member.near-cache.multicast.group:239.1.2.3}") String group,
+                                                                @Value("${member.near-cache.multicast.port:45588}") int port,
+                                                                @Value("${member.near-cache.multicast.interface:}") String networkInterface) throws IOException {
+        return new MulticastInvalidationTransport(group, port, networkInterface);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "member.near-cache.transport", havingValue = "in-process")
+    public InvalidationTransport inProcessInvalidationTransport(@Value("${member.near-cache.cluster:members}") String cluster) {
+        return new InProcessInvalidationTransport(cluster);
+    }
+
+}
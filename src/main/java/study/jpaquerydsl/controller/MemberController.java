@@ -1,31 +1,101 @@
 package study.jpaquerydsl.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import study.jpaquerydsl.cache.MemberNearCache;
+import study.jpaquerydsl.dto.MemberField;
+import study.jpaquerydsl.dto.MemberFieldsDto;
 import study.jpaquerydsl.dto.MemberSearchCondition;
 import study.jpaquerydsl.dto.MemberTeamDto;
-import study.jpaquerydsl.repository.MemberJpaRepository;
-import study.jpaquerydsl.repository.MemberRepository;
+import study.jpaquerydsl.listener.MemberDataVersion;
+import study.jpaquerydsl.repository.MemberQueryCostGuard;
+import study.jpaquerydsl.search.MemberSearchEngine;
+import study.jpaquerydsl.service.MemberQueryService;
+import study.jpaquerydsl.shard.ShardedMemberRepository;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
-    private final MemberJpaRepository memberJpaRepository;
-    private final MemberRepository memberRepository;
+    private final MemberQueryService memberQueryService;
+    private final ObjectProvider<MemberSearchEngine> memberSearchEngine; // member.search-engine.enabled=true 일 때만
+    private final MemberDataVersion memberDataVersion;
+    private final MemberQueryCostGuard memberQueryCostGuard;
+    private final MemberNearCache memberNearCache;
+    private final ObjectProvider<ShardedMemberRepository> shardedMemberRepository; // member.sharding.enabled=true 일 때만
 
+    // 데이터가 바뀌지 않았으면 DB 조회 없이 304
+    // 예상 결과 행 수가 너무 많으면 400 (MemberQueryCostGuard)
+    // 조회 결과는 노드별 near cache에 보관 (다른 노드의 변경도 무효화 메시지로 반영)
+    // 검색은 Callable로 처리, 클라이언트 연결이 끊기면 실행 중인 쿼리 취소 (QueryDeadlineCallableInterceptor)
     @GetMapping("/v1/members")
-    public List<MemberTeamDto> searchMemberV1(MemberSearchCondition condition) {
-        return memberJpaRepository.search(condition);
+    public Callable<List<MemberTeamDto>> searchMemberV1(MemberSearchCondition condition, WebRequest request) {
+        memberQueryCostGuard.check("v1", condition);
+        if (request.checkNotModified(memberDataVersion.etag("v1", condition))) {
+            return null;
+        }
+        return () -> memberNearCache.get(List.of("v1", condition), () -> memberQueryService.search(condition));
     }
 
+    // member.sharding.enabled=true 면 샤드 DB에서 조회 (ShardedMemberRepository)
+    // 샤드 쓰기는 data_version, near cache 무효화에 반영되지 않으므로 ETag, 캐시 없이 매번 조회, includeArchived는 무시
     @GetMapping("/v2/members")
-    public Page<MemberTeamDto> searchMemberV2(MemberSearchCondition condition, Pageable pageable) {
-        return memberRepository.searchPage(condition, pageable);
+    public Callable<Page<MemberTeamDto>> searchMemberV2(MemberSearchCondition condition, Pageable pageable, WebRequest request) {
+        Pageable guarded = memberQueryCostGuard.check("v2", condition, pageable); // 페이지 크기 제한
+        ShardedMemberRepository sharded = shardedMemberRepository.getIfAvailable();
+        if (sharded != null) {
+            return () -> sharded.searchPage(condition, guarded);
+        }
+        if (request.checkNotModified(memberDataVersion.etag("v2", condition, guarded))) {
+            return null;
+        }
+        return () -> memberNearCache.get(List.of("v2", condition, guarded), () -> memberQueryService.searchPage(condition, guarded));
+    }
+
+    // fields=username,age 처럼 필요한 필드만 조회, 응답도 선택한 필드만
+    @GetMapping(value = "/v1/members", params = "fields")
+    public Callable<List<MemberFieldsDto>> searchMemberFieldsV1(MemberSearchCondition condition, @RequestParam String fields, WebRequest request) {
+        Set<MemberField> selected = MemberField.parse(fields);
+        memberQueryCostGuard.check("v1", condition);
+        if (request.checkNotModified(memberDataVersion.etag("v1", condition, selected))) {
+            return null;
+        }
+        return () -> memberQueryService.search(condition, selected);
+    }
+
+    @GetMapping(value = "/v2/members", params = "fields")
+    public Callable<Page<MemberFieldsDto>> searchMemberFieldsV2(MemberSearchCondition condition, @RequestParam String fields, Pageable pageable, WebRequest request) {
+        Set<MemberField> selected = MemberField.parse(fields);
+        Pageable guarded = memberQueryCostGuard.check("v2", condition, pageable);
+        if (request.checkNotModified(memberDataVersion.etag("v2", condition, selected, guarded))) {
+            return null;
+        }
+        return () -> memberQueryService.searchPage(condition, selected, guarded);
+    }
+
+    // ids=1,2,3 처럼 여러 회원을 한 번에 조회 (MemberBatchLoader, 중복 id는 한 번만 조회)
+    @GetMapping(value = "/v1/members", params = {"ids", "!fields"})
+    public List<MemberTeamDto> findMembersV1(@RequestParam List<Long> ids) {
+        return memberQueryService.findAll(ids);
+    }
+
+    // 메모리 인덱스 검색, 검색 엔진이 꺼져 있으면 /v2와 같이 DB로 조회
+    @GetMapping("/v3/members")
+    public Page<MemberTeamDto> searchMemberV3(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchEngine engine = memberSearchEngine.getIfAvailable();
+        if (engine == null) {
+            return memberQueryService.searchPage(condition, pageable);
+        }
+        return engine.searchPage(condition, pageable);
     }
 }
@@ -0,0 +1,48 @@
+package study.jpaquerydsl.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import study.jpaquerydsl.dto.UnsupportedFieldException;
+import study.jpaquerydsl.repository.QueryCancelledException;
+import study.jpaquerydsl.repository.QueryCostExceededException;
+import study.jpaquerydsl.repository.UnsupportedSortException;
+
+@RestControllerAdvice
+public class MemberControllerAdvice {
+
+    private final Counter queryTimeouts;
+
+    public MemberControllerAdvice(MeterRegistry meterRegistry) {
+        this.queryTimeouts = Counter.builder("member.search.query.timeout").register(meterRegistry);
+    }
+
+    @ExceptionHandler({UnsupportedSortException.class, UnsupportedFieldException.class})
+    public ProblemDetail unsupportedParameter(IllegalArgumentException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    // 검색 조건이 너무 넓음 (MemberQueryCostGuard)
+    @ExceptionHandler(QueryCostExceededException.class)
+    public ProblemDetail queryCostExceeded(QueryCostExceededException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    // 요청 마감 시간(QueryDeadline) 초과
+    @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class})
+    public ProblemDetail queryTimeout(RuntimeException e) {
+        queryTimeouts.increment();
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, "검색 시간이 초과되었습니다.");
+    }
+
+    // 클라이언트 연결이 끊겨서 취소됨, 응답은 전달되지 않음 (member.search.query.cancelled로 따로 집계)
+    @ExceptionHandler(QueryCancelledException.class)
+    public ProblemDetail queryCancelled(QueryCancelledException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+    }
+
+}
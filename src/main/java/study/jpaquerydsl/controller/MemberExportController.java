@@ -0,0 +1,28 @@
+package study.jpaquerydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.exporter.MemberCsvExporter;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private final MemberCsvExporter memberCsvExporter;
+
+    // member_id 범위를 partitions개로 나눠서 병렬 조회, member_id 순서로 이어서 응답
+    @GetMapping(value = "/exports/members", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> export(MemberSearchCondition condition,
+                                                        @RequestParam(defaultValue = "4") int partitions) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"members.csv\"")
+                .body(out -> memberCsvExporter.export(condition, partitions, out));
+    }
+
+}
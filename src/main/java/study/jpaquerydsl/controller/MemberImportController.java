@@ -0,0 +1,52 @@
+package study.jpaquerydsl.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import study.jpaquerydsl.importer.MemberCsvImporter;
+import study.jpaquerydsl.importer.MemberImportJob;
+import study.jpaquerydsl.importer.MemberImportProgress;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * CSV(username,age,teamName) 회원 대량 입력
+ * 입력은 비동기로 실행, 진행 상황은 Location(GET /imports/members/{id})으로 확인
+ */
+@RestController
+@RequestMapping("/imports/members")
+@RequiredArgsConstructor
+public class MemberImportController {
+
+    private final MemberCsvImporter memberCsvImporter;
+
+    @PostMapping
+    public ResponseEntity<MemberImportProgress> start(@RequestParam MultipartFile file) throws IOException {
+        try (InputStream csv = file.getInputStream()) {
+            return accepted(memberCsvImporter.start(csv));
+        }
+    }
+
+    // 실패한 입력을 체크포인트 이후부터 다시 실행
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<MemberImportProgress> resume(@PathVariable String id) {
+        MemberImportJob job = memberCsvImporter.resume(id);
+        return job == null ? ResponseEntity.notFound().build() : accepted(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<MemberImportProgress> progress(@PathVariable String id) {
+        MemberImportJob job = memberCsvImporter.job(id);
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job.progress());
+    }
+
+    private ResponseEntity<MemberImportProgress> accepted(MemberImportJob job) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/imports/members/" + job.getId()))
+                .body(job.progress());
+    }
+
+}
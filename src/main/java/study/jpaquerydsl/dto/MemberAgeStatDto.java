@@ -0,0 +1,26 @@
+package study.jpaquerydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberAgeStatDto {
+
+    private Long memberId;
+    private String username;
+    private int age;
+    private String teamName;
+    private double teamAvgAge;
+
+    public MemberAgeStatDto(Long memberId, String username, int age, String teamName, double teamAvgAge) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.teamName = teamName;
+        this.teamAvgAge = teamAvgAge;
+    }
+
+    // 팀 평균 대비 나이 차이
+    public double getAgeDiff() {
+        return age - teamAvgAge;
+    }
+}
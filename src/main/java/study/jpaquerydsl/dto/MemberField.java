@@ -0,0 +1,67 @@
+package study.jpaquerydsl.dto;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * fields= 파라미터로 선택할 수 있는 MemberTeamDto 필드
+ * teamName만 team join이 필요 (teamId는 member.team_id)
+ */
+public enum MemberField {
+
+    MEMBER_ID("memberId", false),
+    USERNAME("username", false),
+    AGE("age", false),
+    TEAM_ID("teamId", false),
+    TEAM_NAME("teamName", true);
+
+    private final String property;
+    private final SerializableString jsonName; // 미리 인코딩한 필드명
+    private final boolean teamJoin;
+
+    MemberField(String property, boolean teamJoin) {
+        this.property = property;
+        this.jsonName = new SerializedString(property);
+        this.teamJoin = teamJoin;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public SerializableString jsonName() {
+        return jsonName;
+    }
+
+    public boolean teamJoin() {
+        return teamJoin;
+    }
+
+    // "username,age" -> [USERNAME, AGE], 비어 있으면 전체
+    public static Set<MemberField> parse(String fields) {
+        Set<MemberField> result = EnumSet.noneOf(MemberField.class);
+        for (String property : fields.split(",")) {
+            if (!property.isBlank()) {
+                result.add(of(property.trim()));
+            }
+        }
+        return result.isEmpty() ? EnumSet.allOf(MemberField.class) : result;
+    }
+
+    private static MemberField of(String property) {
+        for (MemberField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new UnsupportedFieldException(property, Arrays.stream(values())
+                .map(MemberField::property)
+                .collect(Collectors.joining(", ")));
+    }
+
+}
@@ -0,0 +1,36 @@
+package study.jpaquerydsl.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Set;
+
+/**
+ * fields= 로 선택한 필드만 담는 검색 결과
+ * values는 MemberField.ordinal() 위치, 선택하지 않은 필드는 직렬화하지 않음
+ */
+@JsonSerialize(using = MemberFieldsDtoSerializer.class)
+public class MemberFieldsDto {
+
+    private final Set<MemberField> fields;
+    private final Object[] values;
+
+    public MemberFieldsDto(Set<MemberField> fields, Object[] values) {
+        this.fields = fields;
+        this.values = values;
+    }
+
+    // 전체 필드로 조회한 결과에서 선택한 필드만
+    public static MemberFieldsDto of(MemberTeamDto dto, Set<MemberField> fields) {
+        return new MemberFieldsDto(fields, new Object[]{
+                dto.getMemberId(), dto.getUsername(), dto.getAge(), dto.getTeamId(), dto.getTeamName()});
+    }
+
+    public Set<MemberField> getFields() {
+        return fields;
+    }
+
+    public Object get(MemberField field) {
+        return values[field.ordinal()];
+    }
+
+}
@@ -0,0 +1,37 @@
+package study.jpaquerydsl.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * MemberFieldsDto 전용 serializer, 선택한 필드만 MemberField 순서대로 출력
+ */
+public class MemberFieldsDtoSerializer extends StdSerializer<MemberFieldsDto> {
+
+    public MemberFieldsDtoSerializer() {
+        super(MemberFieldsDto.class);
+    }
+
+    @Override
+    public void serialize(MemberFieldsDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(dto);
+        for (MemberField field : dto.getFields()) {
+            gen.writeFieldName(field.jsonName());
+            Object value = dto.get(field);
+            if (value == null) {
+                gen.writeNull();
+            } else if (value instanceof Long longValue) {
+                gen.writeNumber(longValue);
+            } else if (value instanceof Integer intValue) {
+                gen.writeNumber(intValue);
+            } else {
+                gen.writeString(value.toString());
+            }
+        }
+        gen.writeEndObject();
+    }
+
+}
@@ -0,0 +1,23 @@
+package study.jpaquerydsl.dto;
+
+import lombok.Data;
+
+@Data
+public class MemberRankDto {
+
+    private Long memberId;
+    private String username;
+    private int age;
+    private Long teamId;
+    private String teamName;
+    private long rank; // 팀 안에서의 나이 순위 (1부터)
+
+    public MemberRankDto(Long memberId, String username, int age, Long teamId, String teamName, long rank) {
+        this.memberId = memberId;
+        this.username = username;
+        this.age = age;
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.rank = rank;
+    }
+}
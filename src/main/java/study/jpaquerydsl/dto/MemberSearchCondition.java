@@ -9,6 +9,7 @@ public class MemberSearchCondition {
     private String teamName;
     private Integer ageGoe;
     private Integer ageLoe;
+    private boolean includeArchived; // true면 member_archive(오래된 회원)도 조회
 
 
 }
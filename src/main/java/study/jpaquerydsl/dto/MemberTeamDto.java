@@ -1,9 +1,11 @@
 package study.jpaquerydsl.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.querydsl.core.annotations.QueryProjection;
 import lombok.Data;
 
 @Data
+@JsonSerialize(using = MemberTeamDtoSerializer.class) // JSON, Smile, CBOR 공통
 public class MemberTeamDto {
 
     private Long memberId;
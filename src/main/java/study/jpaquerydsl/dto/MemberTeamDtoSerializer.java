@@ -0,0 +1,57 @@
+package study.jpaquerydsl.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * MemberTeamDto 전용 serializer
+ * 리플렉션(BeanSerializer) 없이 getter를 직접 호출하고, 필드명은 미리 인코딩해서 재사용
+ */
+public class MemberTeamDtoSerializer extends StdSerializer<MemberTeamDto> {
+
+    private static final SerializableString MEMBER_ID = new SerializedString("memberId");
+    private static final SerializableString USERNAME = new SerializedString("username");
+    private static final SerializableString AGE = new SerializedString("age");
+    private static final SerializableString TEAM_ID = new SerializedString("teamId");
+    private static final SerializableString TEAM_NAME = new SerializedString("teamName");
+
+    public MemberTeamDtoSerializer() {
+        super(MemberTeamDto.class);
+    }
+
+    @Override
+    public void serialize(MemberTeamDto dto, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(dto);
+
+        gen.writeFieldName(MEMBER_ID);
+        writeLong(gen, dto.getMemberId());
+
+        gen.writeFieldName(USERNAME);
+        gen.writeString(dto.getUsername());
+
+        gen.writeFieldName(AGE);
+        gen.writeNumber(dto.getAge());
+
+        gen.writeFieldName(TEAM_ID);
+        writeLong(gen, dto.getTeamId());
+
+        gen.writeFieldName(TEAM_NAME);
+        gen.writeString(dto.getTeamName());
+
+        gen.writeEndObject();
+    }
+
+    private void writeLong(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+}
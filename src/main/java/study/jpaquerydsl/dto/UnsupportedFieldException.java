@@ -0,0 +1,12 @@
+package study.jpaquerydsl.dto;
+
+/**
+ * fields= 파라미터에 없는 필드를 요청한 경우
+ */
+public class UnsupportedFieldException extends IllegalArgumentException {
+
+    public UnsupportedFieldException(String property, String selectable) {
+        super("선택할 수 없는 필드입니다: " + property + " (가능: " + selectable + ")");
+    }
+
+}
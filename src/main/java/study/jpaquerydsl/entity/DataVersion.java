@@ -0,0 +1,28 @@
+package study.jpaquerydsl.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 노드 간 공유하는 데이터 버전 (name = "member": member, team 변경마다 증가)
+ * name = "member_team"은 member_team 스키마 버전 (MemberTeamViewWriter.SCHEMA_VERSION, 바뀌면 기동 시 재생성)
+ * 변경과 같은 트랜잭션에서 증가 (MemberDataVersion), 검색 API ETag에 사용
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class DataVersion {
+
+    @Id
+    private String name;
+
+    private long version;
+
+}
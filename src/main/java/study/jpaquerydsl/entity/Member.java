@@ -4,6 +4,11 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_member_username", columnList = "username"), // searchPage 정렬(username) + username 검색
+        @Index(name = "idx_member_age", columnList = "age"),           // searchPage 정렬(age) + 나이 범위 검색
+        @Index(name = "idx_member_team_id", columnList = "team_id")    // teamName 검색 join, Team.members 로딩 (파티션 후 외래 키가 없어져도 유지)
+})
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -39,9 +44,13 @@ public class Member {
         }
     }
 
+    // Team.members를 초기화하지 않고 양방향 관계와 Team.memberCount를 맞춤
     public void changeTeam(Team team) {
+        if (this.team != null) {
+            this.team.removeMember(this);
+        }
         this.team = team;
-        team.getMembers().add(this);
+        team.addMember(this);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package study.jpaquerydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * 오래된(member_id가 작은) 회원을 옮겨두는 테이블
+ * 직접 저장하지 않고 MemberArchiver가 member에서 배치로 이동
+ * 기본 검색에서는 제외, MemberSearchCondition.includeArchived면 member와 함께 조회
+ */
+@Entity
+@Immutable
+@Table(name = "member_archive", indexes = {
+        @Index(name = "idx_member_archive_username", columnList = "username"),
+        @Index(name = "idx_member_archive_age", columnList = "age"),
+        @Index(name = "idx_member_archive_team_id", columnList = "team_id")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class MemberArchive {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    private String username;
+
+    private int age;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+}
@@ -0,0 +1,41 @@
+package study.jpaquerydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * CSV 대량 입력(MemberCsvImporter)에서 커밋된 batch의 파일 범위 [startOffset, endOffset)
+ * member insert와 같은 트랜잭션에서 저장, 재개 시 이 범위는 건너뜀
+ */
+@Entity
+@Immutable
+@Table(name = "member_import_batch", indexes = {
+        @Index(name = "idx_member_import_batch_import_id", columnList = "import_id, start_offset")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class MemberImportBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "member_import_batch_id")
+    private Long id;
+
+    @Column(name = "import_id")
+    private String importId;
+
+    @Column(name = "start_offset")
+    private long startOffset;
+
+    @Column(name = "end_offset")
+    private long endOffset;
+
+    @Column(name = "row_count")
+    private int rowCount;
+
+}
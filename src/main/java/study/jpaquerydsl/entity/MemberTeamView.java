@@ -0,0 +1,40 @@
+package study.jpaquerydsl.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * MemberTeamDto 조회용 비정규화 테이블 (member left join team 결과)
+ * 직접 저장하지 않고 MemberTeamViewListener가 Member, Team 변경 시 갱신
+ */
+@Entity
+@Immutable
+@Table(name = "member_team", indexes = {
+        @Index(name = "idx_member_team_username", columnList = "username"),
+        @Index(name = "idx_member_team_team_name", columnList = "team_name"),
+        @Index(name = "idx_member_team_age", columnList = "age")
+})
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class MemberTeamView {
+
+    @Id
+    @Column(name = "member_id")
+    private Long memberId;
+
+    private String username;
+
+    private int age;
+
+    @Column(name = "team_id")
+    private Long teamId;
+
+    @Column(name = "team_name")
+    private String teamName;
+
+}
@@ -2,11 +2,14 @@ package study.jpaquerydsl.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Table(indexes = @Index(name = "idx_team_name", columnList = "name"))
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
@@ -23,8 +26,34 @@ public class Team {
     @OneToMany(mappedBy = "team")
     private List<Member> members = new ArrayList<>();
 
+    /**
+     * members를 로딩하지 않고 회원 수 확인
+     * DB 값은 TeamMemberCountListener가 member flush 때 member_count + delta로 갱신 (동시 변경에도 누락 없음)
+     * 필드는 이 영속성 컨텍스트에서 본 값이라 dirty checking으로 덮어쓰지 않도록 insert/update에서 제외
+     */
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    private int memberCount;
+
     public Team(String name) {
         this.name = name;
     }
 
+    /**
+     * mappedBy 쪽 List(bag)는 초기화 전이면 add를 큐에 쌓아두고 나중에 초기화할 때 반영함
+     * 그래서 팀 인원과 상관없이 컬렉션을 로딩하지 않음
+     */
+    void addMember(Member member) {
+        members.add(member);
+        memberCount++;
+    }
+
+    // bag의 remove는 컬렉션을 초기화하므로 이미 로딩된 경우에만 제거
+    void removeMember(Member member) {
+        if (Hibernate.isInitialized(members)) {
+            members.remove(member);
+        }
+        memberCount--;
+    }
+
 }
@@ -0,0 +1,42 @@
+package study.jpaquerydsl.entity.sql;
+
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * querydsl-sql 용 id_sequence 테이블 메타모델 (샤드 DB, db/shard-schema.sql)
+ */
+public class SIdSequence extends RelationalPathBase<SIdSequence> {
+
+    public static final SIdSequence idSequence = new SIdSequence("s");
+
+    public final StringPath name = createString("name");
+
+    public final NumberPath<Long> nextValue = createNumber("nextValue", Long.class);
+
+    public final PrimaryKey<SIdSequence> primary = createPrimaryKey(name);
+
+    public SIdSequence(String variable) {
+        super(SIdSequence.class, forVariable(variable), null, "id_sequence");
+        addMetadata();
+    }
+
+    public SIdSequence(PathMetadata metadata) {
+        super(SIdSequence.class, metadata, null, "id_sequence");
+        addMetadata();
+    }
+
+    private void addMetadata() {
+        addMetadata(name, ColumnMetadata.named("name").withIndex(1).ofType(Types.VARCHAR).withSize(64).notNull());
+        addMetadata(nextValue, ColumnMetadata.named("next_value").withIndex(2).ofType(Types.BIGINT).notNull());
+    }
+
+}
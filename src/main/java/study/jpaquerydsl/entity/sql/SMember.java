@@ -0,0 +1,48 @@
+package study.jpaquerydsl.entity.sql;
+
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * querydsl-sql 용 member 테이블 메타모델 (Member 엔티티 매핑과 같은 컬럼)
+ */
+public class SMember extends RelationalPathBase<SMember> {
+
+    public static final SMember member = new SMember("m");
+
+    public final NumberPath<Long> memberId = createNumber("memberId", Long.class);
+
+    public final StringPath username = createString("username");
+
+    public final NumberPath<Integer> age = createNumber("age", Integer.class);
+
+    public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+    public final PrimaryKey<SMember> primary = createPrimaryKey(memberId);
+
+    public SMember(String variable) {
+        super(SMember.class, forVariable(variable), null, "member");
+        addMetadata();
+    }
+
+    public SMember(PathMetadata metadata) {
+        super(SMember.class, metadata, null, "member");
+        addMetadata();
+    }
+
+    private void addMetadata() {
+        addMetadata(memberId, ColumnMetadata.named("member_id").withIndex(1).ofType(Types.BIGINT).notNull());
+        addMetadata(username, ColumnMetadata.named("username").withIndex(2).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(age, ColumnMetadata.named("age").withIndex(3).ofType(Types.INTEGER).notNull());
+        addMetadata(teamId, ColumnMetadata.named("team_id").withIndex(4).ofType(Types.BIGINT));
+    }
+
+}
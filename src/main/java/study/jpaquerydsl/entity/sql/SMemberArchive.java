@@ -0,0 +1,53 @@
+package study.jpaquerydsl.entity.sql;
+
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.DateTimePath;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * querydsl-sql 용 member_archive 테이블 메타모델 (MemberArchive 엔티티 매핑과 같은 컬럼)
+ */
+public class SMemberArchive extends RelationalPathBase<SMemberArchive> {
+
+    public static final SMemberArchive memberArchive = new SMemberArchive("a");
+
+    public final NumberPath<Long> memberId = createNumber("memberId", Long.class);
+
+    public final StringPath username = createString("username");
+
+    public final NumberPath<Integer> age = createNumber("age", Integer.class);
+
+    public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+    public final DateTimePath<LocalDateTime> archivedAt = createDateTime("archivedAt", LocalDateTime.class);
+
+    public final PrimaryKey<SMemberArchive> primary = createPrimaryKey(memberId);
+
+    public SMemberArchive(String variable) {
+        super(SMemberArchive.class, forVariable(variable), null, "member_archive");
+        addMetadata();
+    }
+
+    public SMemberArchive(PathMetadata metadata) {
+        super(SMemberArchive.class, metadata, null, "member_archive");
+        addMetadata();
+    }
+
+    private void addMetadata() {
+        addMetadata(memberId, ColumnMetadata.named("member_id").withIndex(1).ofType(Types.BIGINT).notNull());
+        addMetadata(username, ColumnMetadata.named("username").withIndex(2).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(age, ColumnMetadata.named("age").withIndex(3).ofType(Types.INTEGER).notNull());
+        addMetadata(teamId, ColumnMetadata.named("team_id").withIndex(4).ofType(Types.BIGINT));
+        addMetadata(archivedAt, ColumnMetadata.named("archived_at").withIndex(5).ofType(Types.TIMESTAMP));
+    }
+
+}
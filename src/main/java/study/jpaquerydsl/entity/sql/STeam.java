@@ -0,0 +1,45 @@
+package study.jpaquerydsl.entity.sql;
+
+import com.querydsl.core.types.PathMetadata;
+import com.querydsl.core.types.dsl.NumberPath;
+import com.querydsl.core.types.dsl.StringPath;
+import com.querydsl.sql.ColumnMetadata;
+import com.querydsl.sql.PrimaryKey;
+import com.querydsl.sql.RelationalPathBase;
+
+import java.sql.Types;
+
+import static com.querydsl.core.types.PathMetadataFactory.forVariable;
+
+/**
+ * querydsl-sql 용 team 테이블 메타모델 (Team 엔티티 매핑과 같은 컬럼)
+ */
+public class STeam extends RelationalPathBase<STeam> {
+
+    public static final STeam team = new STeam("t");
+
+    public final NumberPath<Long> teamId = createNumber("teamId", Long.class);
+
+    public final StringPath name = createString("name");
+
+    public final NumberPath<Integer> memberCount = createNumber("memberCount", Integer.class);
+
+    public final PrimaryKey<STeam> primary = createPrimaryKey(teamId);
+
+    public STeam(String variable) {
+        super(STeam.class, forVariable(variable), null, "team");
+        addMetadata();
+    }
+
+    public STeam(PathMetadata metadata) {
+        super(STeam.class, metadata, null, "team");
+        addMetadata();
+    }
+
+    private void addMetadata() {
+        addMetadata(teamId, ColumnMetadata.named("team_id").withIndex(1).ofType(Types.BIGINT).notNull());
+        addMetadata(name, ColumnMetadata.named("name").withIndex(2).ofType(Types.VARCHAR).withSize(255));
+        addMetadata(memberCount, ColumnMetadata.named("member_count").withIndex(3).ofType(Types.INTEGER).notNull());
+    }
+
+}
@@ -0,0 +1,231 @@
+package study.jpaquerydsl.exporter;
+
+import com.mysema.commons.lang.CloseableIterator;
+import com.querydsl.core.Tuple;
+import com.querydsl.sql.MySQLTemplates;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.StatementOptions;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.repository.MemberSqlConditions;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static study.jpaquerydsl.entity.sql.SMember.member;
+import static study.jpaquerydsl.entity.sql.STeam.team;
+
+/**
+ * member ⋈ team 전체를 CSV(memberId,username,age,teamId,teamName)로 내보냄
+ * member_id 범위를 N개로 나눠서 파티션마다 별도 커넥션(읽기 전용 트랜잭션)에서 스트리밍 조회
+ * - export(): 파티션 0은 바로 출력, 나머지는 임시 파일에 쓴 뒤 순서대로 이어붙임 (member_id 순서 유지)
+ * - exportToFiles(): 파티션마다 파일 하나
+ * 파티션마다 트랜잭션이 달라서 내보내는 중에 바뀐 데이터는 파티션별 시점으로 보임
+ * member 테이블만 대상 (member_archive 제외)
+ */
+@Component
+public class MemberCsvExporter {
+
+    private static final String HEADER = "memberId,username,age,teamId,teamName\n";
+
+    private final SQLQueryFactory sqlQueryFactory;
+    private final TransactionTemplate readTransaction;
+    private final int maxPartitions;
+    private final int fetchSize;
+    private final ExecutorService executor;
+
+    public MemberCsvExporter(SQLQueryFactory sqlQueryFactory,
+                             DataSource dataSource,
+                             @Value("${member.export.max-partitions:8}") int maxPartitions,
+                             @Value("${member.export.fetch-size:1000}") int fetchSize) {
+        this.sqlQueryFactory = sqlQueryFactory;
+        // JPA 없이 커넥션만 스레드에 바인딩 (SpringConnectionProvider가 사용)
+        this.readTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.readTransaction.setReadOnly(true);
+        this.maxPartitions = maxPartitions;
+        // MySQL은 fetch size가 Integer.MIN_VALUE여야 결과를 메모리에 모두 올리지 않고 행 단위로 읽음
+        this.fetchSize = sqlQueryFactory.getConfiguration().getTemplates() instanceof MySQLTemplates
+                ? Integer.MIN_VALUE : fetchSize;
+        this.executor = Executors.newFixedThreadPool(maxPartitions, runnable -> {
+            Thread thread = new Thread(runnable, "member-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 파티션별 결과를 member_id 순서대로 이어서 out에 씀, 내보낸 행 수를 반환
+     */
+    public long export(MemberSearchCondition condition, int partitions, OutputStream out) throws IOException {
+        List<long[]> ranges = ranges(partitions);
+        List<Path> spools = new ArrayList<>();
+        List<Future<Long>> futures = new ArrayList<>();
+        try {
+            for (int i = 1; i < ranges.size(); i++) {
+                Path spool = Files.createTempFile("member-export-", ".csv");
+                spools.add(spool);
+                long[] range = ranges.get(i);
+                futures.add(executor.submit(() -> writeFile(condition, range, spool)));
+            }
+
+            Writer writer = writer(out);
+            writer.write(HEADER);
+            long rows = ranges.isEmpty() ? 0 : write(condition, ranges.get(0), writer);
+            writer.flush();
+            for (int i = 0; i < futures.size(); i++) {
+                rows += await(futures.get(i));
+                Files.copy(spools.get(i), out);
+            }
+            out.flush();
+            return rows;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+            for (Path spool : spools) {
+                Files.deleteIfExists(spool);
+            }
+        }
+    }
+
+    /**
+     * 파티션마다 dir/member-{번호}.csv (헤더 포함)
+     */
+    public List<Path> exportToFiles(MemberSearchCondition condition, int partitions, Path dir) throws IOException {
+        Files.createDirectories(dir);
+        List<long[]> ranges = ranges(partitions);
+        List<Path> files = new ArrayList<>();
+        List<Future<Long>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < ranges.size(); i++) {
+                Path file = dir.resolve("member-" + i + ".csv");
+                files.add(file);
+                long[] range = ranges.get(i);
+                futures.add(executor.submit(() -> {
+                    try (Writer writer = writer(Files.newOutputStream(file))) {
+                        writer.write(HEADER);
+                        return write(condition, range, writer);
+                    }
+                }));
+            }
+            for (Future<Long> future : futures) {
+                await(future);
+            }
+            return files;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    // [min, max] member_id를 같은 폭의 [from, to) 범위로 나눔, 회원이 없으면 빈 목록
+    List<long[]> ranges(int partitions) {
+        int count = Math.max(1, Math.min(partitions, maxPartitions));
+        Tuple bounds = readTransaction.execute(status -> sqlQueryFactory
+                .select(member.memberId.min(), member.memberId.max())
+                .from(member)
+                .fetchOne());
+        Long min = bounds == null ? null : bounds.get(0, Long.class);
+        Long max = bounds == null ? null : bounds.get(1, Long.class);
+        if (min == null || max == null) {
+            return List.of();
+        }
+        long step = Math.max(1, (max - min + count) / count);
+        List<long[]> ranges = new ArrayList<>();
+        for (long from = min; from <= max; from += step) {
+            ranges.add(new long[]{from, Math.min(from + step, max + 1)});
+        }
+        return ranges;
+    }
+
+    private long writeFile(MemberSearchCondition condition, long[] range, Path file) throws IOException {
+        try (Writer writer = writer(Files.newOutputStream(file))) {
+            return write(condition, range, writer);
+        }
+    }
+
+    // 파티션 하나를 읽기 전용 트랜잭션(별도 커넥션)에서 스트리밍 조회
+    private long write(MemberSearchCondition condition, long[] range, Writer writer) {
+        Long rows = readTransaction.execute(status -> {
+            SQLQuery<Tuple> query = sqlQueryFactory
+                    .select(member.memberId, member.username, member.age, member.teamId, team.name)
+                    .from(member)
+                    .leftJoin(team).on(team.teamId.eq(member.teamId))
+                    .where(MemberSqlConditions.of(condition))
+                    .where(member.memberId.goe(range[0]), member.memberId.lt(range[1]))
+                    .orderBy(member.memberId.asc());
+            query.setStatementOptions(StatementOptions.builder().setFetchSize(fetchSize).build());
+
+            long count = 0;
+            try (CloseableIterator<Tuple> iterator = query.iterate()) {
+                StringBuilder line = new StringBuilder(128);
+                while (iterator.hasNext()) {
+                    Tuple row = iterator.next();
+                    line.setLength(0);
+                    line.append(row.get(member.memberId)).append(',');
+                    appendCsv(line, row.get(member.username)).append(',');
+                    line.append(row.get(member.age)).append(',');
+                    Long teamId = row.get(member.teamId);
+                    if (teamId != null) {
+                        line.append(teamId);
+                    }
+                    line.append(',');
+                    appendCsv(line, row.get(team.name)).append('\n');
+                    writer.append(line);
+                    count++;
+                }
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    // 쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감쌈
+    private static StringBuilder appendCsv(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    private static Writer writer(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static long await(Future<Long> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("내보내기가 중단되었습니다.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+}
@@ -0,0 +1,572 @@
+package study.jpaquerydsl.importer;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.jpaquerydsl.listener.MemberDataChangedEvent;
+import study.jpaquerydsl.listener.MemberDataVersion;
+import study.jpaquerydsl.repository.MemberTeamViewWriter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.*;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+
+/**
+ * CSV(username,age,teamName) 회원 대량 입력
+ * - 파싱 스레드 하나가 파일을 메모리 매핑해서 바이트 단위로 파싱 (행마다 username String 하나만 생성)
+ * - 팀 이름은 TeamIdCache로 team_id 변환, 없는 팀은 생성
+ * - batch를 크기가 정해진 큐로 insert 스레드에 넘김 (큐가 차면 파싱 스레드가 대기)
+ * - batch마다 별도 트랜잭션: member insert + team.member_count + member_team(읽기 모델) + data_version + 체크포인트(member_import_batch)
+ * - 실패 후 재개하면 체크포인트 범위는 건너뛰고 나머지만 입력 (같은 행이 두 번 들어가지 않음)
+ * 입력은 한 번에 하나씩 실행, 끝나면(실패 포함) 벌크 변경 이벤트 발행
+ * 완료되면 업로드 파일과 체크포인트를 바로 삭제, 진행 상태는 completed-retention 동안 조회 가능
+ * 실패한 입력은 failed-retention 동안 재개할 수 있고 지나면 파일, 체크포인트, 진행 상태를 정리 (purge)
+ */
+@Slf4j
+@Component
+public class MemberCsvImporter {
+
+    private static final long REGION_SIZE = 1L << 28; // 한 번에 매핑할 크기, 경계에 걸린 줄은 다음 영역에서 다시 읽음
+    private static final int MAX_ERRORS = 100; // 보관할 잘못된 행 메시지 수
+    private static final int PREVIEW_LENGTH = 100;
+    private static final byte[] HEADER = "username,".getBytes(StandardCharsets.UTF_8);
+
+    private static final String INSERT_MEMBER =
+            "insert into member (username, age, team_id) values (?, ?, ?)";
+
+    private static final String ADD_MEMBER_COUNT =
+            "update team set member_count = member_count + ? where team_id = ?";
+
+    private static final String INSERT_CHECKPOINT =
+            "insert into member_import_batch (import_id, start_offset, end_offset, row_count) values (?, ?, ?, ?)";
+
+    private static final String SELECT_CHECKPOINTS =
+            "select start_offset, end_offset from member_import_batch where import_id = ? order by start_offset";
+
+    private static final String DELETE_CHECKPOINTS =
+            "delete from member_import_batch where import_id = ?";
+
+    private static final String SELECT_TEAM =
+            "select min(team_id) from team where name = ?";
+
+    private static final String INSERT_TEAM =
+            "insert into team (name, member_count) values (?, 0)";
+
+    private static final Batch END = new Batch(0, -1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Path dir;
+    private final int batchSize;
+    private final int threads;
+    private final int queueCapacity;
+    private final long maxBadRows;
+    private final boolean readModelEnabled;
+    private final long completedRetentionNanos;
+    private final Duration failedRetention;
+
+    private final Map<String, MemberImportJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-import-reader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService writers;
+
+    public MemberCsvImporter(JdbcTemplate jdbcTemplate,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${member.import.dir:${java.io.tmpdir}/member-import}") Path dir,
+                             @Value("${member.import.batch-size:5000}") int batchSize,
+                             @Value("${member.import.threads:4}") int threads,
+                             @Value("${member.import.queue-capacity:8}") int queueCapacity,
+                             @Value("${member.import.max-bad-rows:1000}") long maxBadRows,
+                             @Value("${member.read-model.enabled:false}") boolean readModelEnabled,
+                             @Value("${member.import.completed-retention:10m}") Duration completedRetention,
+                             @Value("${member.import.failed-retention:24h}") Duration failedRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.dir = dir;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+        this.maxBadRows = maxBadRows;
+        this.readModelEnabled = readModelEnabled;
+        this.completedRetentionNanos = completedRetention.toNanos();
+        this.failedRetention = failedRetention;
+        this.writers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "member-import-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // 업로드 파일을 dir/{id}.csv로 저장하고 입력 시작 (재개할 때 다시 읽음)
+    public MemberImportJob start(InputStream csv) throws IOException {
+        String id = UUID.randomUUID().toString();
+        Path file = file(id);
+        Files.createDirectories(dir);
+        Files.copy(csv, file);
+        return submit(id, file);
+    }
+
+    // 실패(또는 서버 재시작)한 입력을 체크포인트 이후부터 다시 실행, 파일이 없으면 null
+    public MemberImportJob resume(String id) {
+        MemberImportJob current = jobs.get(id);
+        if (current != null && current.getState() == MemberImportJob.State.RUNNING) {
+            return current;
+        }
+        Path file = file(id);
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+        return submit(id, file);
+    }
+
+    public MemberImportJob job(String id) {
+        return jobs.get(id);
+    }
+
+    /**
+     * 보관 기간이 지난 입력 정리
+     * - 완료: 진행 상태 (파일, 체크포인트는 완료할 때 삭제)
+     * - 실패: 재개용 파일, 체크포인트, 진행 상태 (서버 재시작 전에 실패해서 진행 상태가 없는 파일은 수정 시각으로)
+     */
+    @Scheduled(initialDelayString = "${member.import.purge-interval-ms:600000}", fixedDelayString = "${member.import.purge-interval-ms:600000}")
+    public void purge() {
+        long now = System.nanoTime();
+        for (MemberImportJob job : jobs.values()) {
+            MemberImportJob.State state = job.getState();
+            if (state == MemberImportJob.State.COMPLETED && job.finishedBefore(now - completedRetentionNanos)) {
+                jobs.remove(job.getId(), job);
+            } else if (state == MemberImportJob.State.FAILED && job.finishedBefore(now - failedRetention.toNanos())
+                    && jobs.remove(job.getId(), job)) {
+                discard(job.getId());
+            }
+        }
+
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        long expiredMillis = System.currentTimeMillis() - failedRetention.toMillis();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.toList()) {
+                String id = file.getFileName().toString().replace(".csv", "");
+                if (!jobs.containsKey(id) && file(id) != null && Files.getLastModifiedTime(file).toMillis() < expiredMillis) {
+                    discard(id);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("member import purge failed. dir={}", dir, e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        reader.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    private MemberImportJob submit(String id, Path file) {
+        try {
+            MemberImportJob job = new MemberImportJob(id, file, Files.size(file), MAX_ERRORS);
+            jobs.put(id, job);
+            reader.execute(() -> run(job));
+            return job;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // id는 UUID만 허용 (경로 조작 방지)
+    private Path file(String id) {
+        try {
+            return dir.resolve(UUID.fromString(id) + ".csv");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void run(MemberImportJob job) {
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(queueCapacity);
+        List<Future<?>> writing = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            writing.add(writers.submit(() -> write(job, queue)));
+        }
+        try {
+            new Reader(job, queue).read();
+        } catch (Exception e) {
+            log.warn("member import failed. id={}", job.getId(), e);
+            job.fail(e.getMessage());
+        }
+        try {
+            for (int i = 0; i < threads; i++) {
+                queue.put(END);
+            }
+            for (Future<?> future : writing) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("중단되었습니다.");
+        } catch (ExecutionException e) {
+            job.fail(e.getCause().getMessage());
+        }
+        job.complete();
+        log.info("member import finished. {}", job.progress());
+        if (job.getState() == MemberImportJob.State.COMPLETED) {
+            discard(job.getId()); // 재개할 일이 없음
+        }
+
+        // batch마다 발행하면 검색 캐시를 계속 비우므로 끝날 때 한 번
+        if (job.getImportedRows() > 0) {
+            eventPublisher.publishEvent(MemberDataChangedEvent.bulk());
+        }
+    }
+
+    // 업로드 파일, 체크포인트 삭제
+    private void discard(String id) {
+        try {
+            Files.deleteIfExists(file(id));
+        } catch (IOException e) {
+            log.warn("member import file not deleted. id={}", id, e);
+        }
+        jdbcTemplate.update(DELETE_CHECKPOINTS, id);
+    }
+
+    private void write(MemberImportJob job, BlockingQueue<Batch> queue) {
+        while (true) {
+            Batch batch;
+            try {
+                batch = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (batch == END) {
+                return;
+            }
+            if (job.isFailed()) {
+                continue; // 실패 후에는 버림 (파싱 스레드가 큐에서 막히지 않도록), 재개하면 다시 입력
+            }
+            try {
+                insertBatch(job.getId(), batch);
+                job.imported(batch.size);
+            } catch (RuntimeException e) {
+                log.warn("member import batch failed. id={}, offset={}", job.getId(), batch.startOffset, e);
+                job.fail(e.getMessage());
+            }
+        }
+    }
+
+    void insertBatch(String importId, Batch batch) {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            List<Long> memberIds = insertMembers(connection, batch);
+            addMemberCounts(connection, batch);
+            if (readModelEnabled) {
+                MemberTeamViewWriter.refresh(connection, memberIds);
+            }
+            MemberDataVersion.increment(connection); // ETag 버전 (커밋 후 이벤트는 입력이 끝날 때 한 번)
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_CHECKPOINT)) {
+                ps.setString(1, importId);
+                ps.setLong(2, batch.startOffset);
+                ps.setLong(3, batch.endOffset);
+                ps.setInt(4, batch.size);
+                ps.executeUpdate();
+            }
+            return null;
+        }));
+    }
+
+    // 읽기 모델을 갱신할 때만 생성된 member_id를 받음
+    private List<Long> insertMembers(Connection connection, Batch batch) throws SQLException {
+        try (PreparedStatement ps = readModelEnabled
+                ? connection.prepareStatement(INSERT_MEMBER, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(INSERT_MEMBER)) {
+            for (int i = 0; i < batch.size; i++) {
+                ps.setString(1, batch.usernames[i]);
+                ps.setInt(2, batch.ages[i]);
+                if (batch.teamIds[i] == 0) {
+                    ps.setNull(3, Types.BIGINT);
+                } else {
+                    ps.setLong(3, batch.teamIds[i]);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            if (!readModelEnabled) {
+                return List.of();
+            }
+            List<Long> memberIds = new ArrayList<>(batch.size);
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                while (keys.next()) {
+                    memberIds.add(keys.getLong(1));
+                }
+            }
+            return memberIds;
+        }
+    }
+
+    // team_id 순으로 update (다른 트랜잭션과 락 순서를 맞춤)
+    private void addMemberCounts(Connection connection, Batch batch) throws SQLException {
+        Map<Long, Integer> counts = new TreeMap<>();
+        for (int i = 0; i < batch.size; i++) {
+            if (batch.teamIds[i] != 0) {
+                counts.merge(batch.teamIds[i], 1, Integer::sum);
+            }
+        }
+        if (counts.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(ADD_MEMBER_COUNT)) {
+            for (Map.Entry<Long, Integer> count : counts.entrySet()) {
+                ps.setInt(1, count.getValue());
+                ps.setLong(2, count.getKey());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    // 같은 이름의 팀이 이미 있으면 재사용 (입력이 한 번에 하나라 동시에 생성되지 않음)
+    private synchronized long resolveTeam(String name) {
+        Long teamId = jdbcTemplate.queryForObject(SELECT_TEAM, Long.class, name);
+        if (teamId != null) {
+            return teamId;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_TEAM, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, name);
+            return ps;
+        }, keyHolder);
+        return Objects.requireNonNull(keyHolder.getKey()).longValue();
+    }
+
+    /**
+     * 파일 범위 [startOffset, endOffset)의 행들 (컬럼별 배열)
+     */
+    static final class Batch {
+
+        final String[] usernames;
+        final int[] ages;
+        final long[] teamIds; // 0이면 팀 없음
+        int size;
+        long startOffset;
+        long endOffset;
+
+        Batch(int capacity, long startOffset) {
+            this.usernames = new String[capacity];
+            this.ages = new int[capacity];
+            this.teamIds = new long[capacity];
+            this.startOffset = startOffset;
+        }
+
+        void add(String username, int age, long teamId) {
+            usernames[size] = username;
+            ages[size] = age;
+            teamIds[size] = teamId;
+            size++;
+        }
+
+    }
+
+    /**
+     * 파싱 스레드 (입력 하나마다 생성)
+     */
+    private class Reader {
+
+        private final MemberImportJob job;
+        private final BlockingQueue<Batch> queue;
+        private final List<long[]> committed; // 이미 커밋된 범위 (start_offset 순)
+        private final TeamIdCache teams = new TeamIdCache(MemberCsvImporter.this::resolveTeam);
+        private byte[] scratch = new byte[256];
+        private int nextCommitted;
+        private Batch batch = new Batch(batchSize, 0);
+
+        Reader(MemberImportJob job, BlockingQueue<Batch> queue) {
+            this.job = job;
+            this.queue = queue;
+            this.committed = jdbcTemplate.query(SELECT_CHECKPOINTS,
+                    (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)}, job.getId());
+        }
+
+        void read() throws IOException, InterruptedException {
+            try (FileChannel channel = FileChannel.open(job.file(), StandardOpenOption.READ)) {
+                long size = channel.size();
+                long position = 0;
+                while (position < size && !job.isFailed()) {
+                    int limit = (int) Math.min(REGION_SIZE, size - position);
+                    boolean lastRegion = position + limit == size;
+                    MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, limit);
+
+                    long jumpTo = -1;
+                    int lineStart = 0;
+                    while (lineStart < limit && !job.isFailed()) {
+                        long offset = position + lineStart;
+                        long committedEnd = committedEnd(offset);
+                        if (committedEnd >= 0) {
+                            flush(offset);
+                            batch.startOffset = committedEnd;
+                            if (committedEnd - position >= limit) {
+                                jumpTo = committedEnd; // 다음 영역으로 건너뜀
+                                break;
+                            }
+                            lineStart = (int) (committedEnd - position);
+                            continue;
+                        }
+
+                        int lineEnd = indexOf(region, (byte) '\n', lineStart, limit);
+                        if (lineEnd < 0 && !lastRegion) {
+                            break; // 영역 경계에 걸린 줄
+                        }
+                        int end = lineEnd < 0 ? limit : lineEnd;
+                        parseLine(region, lineStart, end, offset);
+                        lineStart = lineEnd < 0 ? limit : lineEnd + 1;
+                        if (batch.size == batchSize) {
+                            flush(position + lineStart);
+                        }
+                    }
+
+                    if (jumpTo >= 0) {
+                        position = jumpTo;
+                    } else if (lineStart == 0 && !job.isFailed()) {
+                        throw new IOException("줄이 너무 깁니다 (offset " + position + ")");
+                    } else {
+                        position += lineStart;
+                    }
+                    job.parsed(position);
+                }
+                if (!job.isFailed()) {
+                    flush(position);
+                }
+            }
+        }
+
+        // offset이 커밋된 범위의 시작이면 그 범위의 끝, 아니면 -1
+        private long committedEnd(long offset) {
+            while (nextCommitted < committed.size() && committed.get(nextCommitted)[1] <= offset) {
+                nextCommitted++;
+            }
+            if (nextCommitted < committed.size() && committed.get(nextCommitted)[0] <= offset) {
+                return committed.get(nextCommitted++)[1];
+            }
+            return -1;
+        }
+
+        // 행이 없는 범위(헤더, 잘못된 행만 있는 범위)는 체크포인트 없이 넘어감
+        private void flush(long endOffset) throws InterruptedException {
+            if (batch.size == 0) {
+                batch.startOffset = endOffset;
+                return;
+            }
+            batch.endOffset = endOffset;
+            queue.put(batch);
+            batch = new Batch(batchSize, endOffset);
+        }
+
+        private void parseLine(ByteBuffer line, int from, int to, long offset) {
+            if (to > from && line.get(to - 1) == '\r') {
+                to--;
+            }
+            if (from == to || (offset == 0 && startsWith(line, from, to, HEADER))) {
+                return; // 빈 줄, 헤더
+            }
+            int comma1 = indexOf(line, (byte) ',', from, to);
+            int comma2 = comma1 < 0 ? -1 : indexOf(line, (byte) ',', comma1 + 1, to);
+            if (comma2 < 0 || indexOf(line, (byte) ',', comma2 + 1, to) >= 0) {
+                badRow(line, from, to, offset, "컬럼은 username,age,teamName 3개여야 합니다");
+                return;
+            }
+            if (comma1 == from) {
+                badRow(line, from, to, offset, "username이 비어 있습니다");
+                return;
+            }
+            int age = parseAge(line, comma1 + 1, comma2);
+            if (age < 0) {
+                badRow(line, from, to, offset, "age는 0 이상의 정수여야 합니다");
+                return;
+            }
+            long teamId = comma2 + 1 == to ? 0 : teams.teamId(line, comma2 + 1, to);
+            batch.add(string(line, from, comma1), age, teamId);
+        }
+
+        private void badRow(ByteBuffer line, int from, int to, long offset, String message) {
+            String preview = string(line, from, Math.min(to, from + PREVIEW_LENGTH));
+            long badRows = job.badRow(offset, message + " (" + preview + ")");
+            if (maxBadRows >= 0 && badRows > maxBadRows) {
+                throw new IllegalStateException("잘못된 행이 " + maxBadRows + "개를 넘었습니다.");
+            }
+        }
+
+        private String string(ByteBuffer buffer, int from, int to) {
+            int length = to - from;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buffer.get(from, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(ByteBuffer buffer, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(from + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 0 ~ 999,999,999, 숫자가 아니면 -1
+    private static int parseAge(ByteBuffer buffer, int from, int to) {
+        if (from == to || to - from > 9) {
+            return -1;
+        }
+        int age = 0;
+        for (int i = from; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            age = age * 10 + digit;
+        }
+        return age;
+    }
+
+}
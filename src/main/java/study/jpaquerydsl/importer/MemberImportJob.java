@@ -0,0 +1,112 @@
+package study.jpaquerydsl.importer;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CSV 입력 하나의 진행 상태 (파싱 스레드, insert 스레드가 함께 갱신)
+ */
+public class MemberImportJob {
+
+    public enum State {RUNNING, COMPLETED, FAILED}
+
+    private final String id;
+    private final Path file;
+    private final long totalBytes;
+    private final int maxErrors;
+    private final long startedAt = System.nanoTime();
+
+    private final AtomicLong parsedBytes = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong badRows = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+
+    private volatile State state = State.RUNNING;
+    private volatile String failure;
+    private volatile long finishedAt;
+
+    MemberImportJob(String id, Path file, long totalBytes, int maxErrors) {
+        this.id = id;
+        this.file = file;
+        this.totalBytes = totalBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getImportedRows() {
+        return importedRows.get();
+    }
+
+    public long getBadRows() {
+        return badRows.get();
+    }
+
+    public MemberImportProgress progress() {
+        long elapsed = (finishedAt == 0 ? System.nanoTime() : finishedAt) - startedAt;
+        long rowsPerSecond = elapsed == 0 ? 0 : importedRows.get() * 1_000_000_000L / elapsed;
+        synchronized (errors) {
+            return new MemberImportProgress(id, state, totalBytes, parsedBytes.get(), importedRows.get(),
+                    badRows.get(), rowsPerSecond, List.copyOf(errors), failure);
+        }
+    }
+
+    Path file() {
+        return file;
+    }
+
+    long totalBytes() {
+        return totalBytes;
+    }
+
+    boolean isFailed() {
+        return state == State.FAILED;
+    }
+
+    // 끝난 시각(System.nanoTime)이 time보다 이전, 실행 중이면 false
+    boolean finishedBefore(long time) {
+        return state != State.RUNNING && finishedAt - time < 0;
+    }
+
+    void parsed(long offset) {
+        parsedBytes.set(offset);
+    }
+
+    void imported(int rows) {
+        importedRows.addAndGet(rows);
+    }
+
+    // 잘못된 행은 개수만 세고 메시지는 maxErrors개까지만 보관
+    long badRow(long offset, String message) {
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add("offset " + offset + ": " + message);
+            }
+        }
+        return badRows.incrementAndGet();
+    }
+
+    synchronized void fail(String message) {
+        if (state == State.RUNNING) {
+            failure = message;
+            state = State.FAILED;
+            finishedAt = System.nanoTime();
+        }
+    }
+
+    synchronized void complete() {
+        if (state == State.RUNNING) {
+            state = State.COMPLETED;
+            finishedAt = System.nanoTime();
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package study.jpaquerydsl.importer;
+
+import java.util.List;
+
+/**
+ * GET /imports/members/{id} 응답
+ * 재개한 경우 parsedBytes, importedRows, badRows는 이번 실행 기준
+ */
+public record MemberImportProgress(String id,
+                                   MemberImportJob.State state,
+                                   long totalBytes,
+                                   long parsedBytes,
+                                   long importedRows,
+                                   long badRows,
+                                   long rowsPerSecond,
+                                   List<String> errors,
+                                   String failure) {
+}
@@ -0,0 +1,93 @@
+package study.jpaquerydsl.importer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * 팀 이름(UTF-8 바이트) -> team_id
+ * 버퍼의 바이트로 바로 찾기 때문에 캐시에 있는 팀은 String을 만들지 않음
+ * 처음 보는 팀만 resolver로 조회/생성 (파싱 스레드 하나에서만 사용)
+ */
+final class TeamIdCache {
+
+    private final Function<String, Long> resolver;
+
+    private byte[][] keys = new byte[64][];
+    private long[] ids = new long[64];
+    private int size;
+
+    TeamIdCache(Function<String, Long> resolver) {
+        this.resolver = resolver;
+    }
+
+    long teamId(ByteBuffer buffer, int from, int to) {
+        int mask = keys.length - 1;
+        for (int i = hash(buffer, from, to) & mask; ; i = (i + 1) & mask) {
+            byte[] key = keys[i];
+            if (key == null) {
+                return add(i, buffer, from, to);
+            }
+            if (matches(key, buffer, from, to)) {
+                return ids[i];
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private long add(int slot, ByteBuffer buffer, int from, int to) {
+        byte[] key = new byte[to - from];
+        buffer.get(from, key);
+        long id = resolver.apply(new String(key, StandardCharsets.UTF_8));
+        keys[slot] = key;
+        ids[slot] = id;
+        if (++size * 2 > keys.length) {
+            resize();
+        }
+        return id;
+    }
+
+    private void resize() {
+        byte[][] oldKeys = keys;
+        long[] oldIds = ids;
+        keys = new byte[oldKeys.length * 2][];
+        ids = new long[oldIds.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            byte[] key = oldKeys[j];
+            if (key == null) {
+                continue;
+            }
+            int i = hash(ByteBuffer.wrap(key), 0, key.length) & mask;
+            while (keys[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = key;
+            ids[i] = oldIds[j];
+        }
+    }
+
+    private static int hash(ByteBuffer buffer, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean matches(byte[] key, ByteBuffer buffer, int from, int to) {
+        if (key.length != to - from) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] != buffer.get(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
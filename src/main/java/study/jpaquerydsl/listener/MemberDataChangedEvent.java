@@ -0,0 +1,41 @@
+package study.jpaquerydsl.listener;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * member, team 데이터가 커밋된 후 발행되는 스프링 이벤트
+ * entityType이 null이면 벌크 변경(대상 id를 특정할 수 없음)
+ * remote면 다른 노드에서 커밋된 변경 (MemberNearCache가 받은 무효화 메시지), 다시 전파하지 않음
+ */
+@Getter
+@ToString
+public class MemberDataChangedEvent {
+
+    private final Class<?> entityType;
+    private final Object id;
+    private final boolean remote;
+
+    public MemberDataChangedEvent(Class<?> entityType, Object id) {
+        this(entityType, id, false);
+    }
+
+    private MemberDataChangedEvent(Class<?> entityType, Object id, boolean remote) {
+        this.entityType = entityType;
+        this.id = id;
+        this.remote = remote;
+    }
+
+    public static MemberDataChangedEvent bulk() {
+        return new MemberDataChangedEvent(null, null);
+    }
+
+    public static MemberDataChangedEvent remote() {
+        return new MemberDataChangedEvent(null, null, true);
+    }
+
+    public static MemberDataChangedEvent remote(Class<?> entityType, Object id) {
+        return new MemberDataChangedEvent(entityType, id, true);
+    }
+
+}
@@ -0,0 +1,142 @@
+package study.jpaquerydsl.listener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+import static io.micrometer.common.util.StringUtils.isEmpty;
+
+/**
+ * member, team 데이터 버전 (data_version 테이블, 모든 노드가 공유)
+ * - 변경과 같은 트랜잭션에서 증가: 엔티티 변경은 MemberDataVersionListener, 벌크 JDBC 경로는 increment(connection) 직접 호출
+ * - 검색 API의 ETag를 만들 때 읽음, 매 요청 조회하지 않도록 cache-ttl 동안 재사용
+ *   (이 노드의 변경, 다른 노드의 무효화 메시지(MemberDataChangedEvent)를 받으면 바로 다시 읽음)
+ */
+@Component
+public class MemberDataVersion {
+
+    private static final String NAME = "member";
+
+    // 행이 없으면(테이블 재생성) 현재 시각에서 시작해서 이전 ETag와 겹치지 않도록
+    private static final String INCREMENT =
+            "insert into data_version (name, version) values ('" + NAME + "', ?) on duplicate key update version = version + 1";
+
+    private static final String SELECT =
+            "select version from data_version where name = '" + NAME + "'";
+
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbcTemplate;
+    private final long cacheTtlNanos;
+
+    private volatile Cached cached;
+
+    public MemberDataVersion(EntityManagerFactory emf, JdbcTemplate jdbcTemplate,
+                             @Value("${member.data-version.cache-ttl:1s}") Duration cacheTtl) {
+        this.emf = emf;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+    }
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        MemberDataVersionListener listener = new MemberDataVersionListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    // 진행 중인 트랜잭션의 커넥션으로 증가 (커밋될 때까지 data_version 행 락 유지)
+    public static void increment(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(INCREMENT)) {
+            ps.setLong(1, System.currentTimeMillis());
+            ps.executeUpdate();
+        }
+    }
+
+    // 커밋된 변경이 있으면 캐시를 버림 (다음 ETag에서 다시 읽음)
+    @EventListener(MemberDataChangedEvent.class)
+    public void onChanged() {
+        cached = null;
+    }
+
+    public long current() {
+        Cached current = cached;
+        long now = System.nanoTime();
+        if (current == null || now - current.readAt >= cacheTtlNanos) {
+            List<Long> versions = jdbcTemplate.queryForList(SELECT, Long.class);
+            current = new Cached(versions.isEmpty() ? 0 : versions.get(0), now);
+            cached = current;
+        }
+        return current.version;
+    }
+
+    /**
+     * 조회 전에 만들어야 함
+     * 조회 중 변경이 커밋되면 응답에는 이전 버전이 붙고, 다음 요청에서 다시 조회됨
+     * 응답 형식(JSON, Smile, CBOR)은 ETag에 넣지 않으므로 Vary: Accept 필요 (WebConfig)
+     */
+    public String etag(Object... query) {
+        return current() + "-" + digest(query);
+    }
+
+    // 조건 + 페이지의 정규화된 문자열 SHA-256
+    static String digest(Object... query) {
+        StringBuilder normalized = new StringBuilder();
+        for (Object part : query) {
+            normalized.append(normalize(part)).append('\n');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(normalized.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // 빈 문자열 조건은 조건 없음과 같은 결과 (MemberRepositoryImpl), 페이지는 offset + size + sort
+    private static String normalize(Object part) {
+        if (part instanceof MemberSearchCondition condition) {
+            return "username=" + encode(condition.getUsername())
+                    + "&teamName=" + encode(condition.getTeamName())
+                    + "&ageGoe=" + (condition.getAgeGoe() == null ? "" : condition.getAgeGoe())
+                    + "&ageLoe=" + (condition.getAgeLoe() == null ? "" : condition.getAgeLoe())
+                    + "&includeArchived=" + condition.isIncludeArchived();
+        }
+        if (part instanceof Pageable pageable) {
+            return pageable.isUnpaged() ? "unpaged"
+                    : "offset=" + pageable.getOffset() + "&size=" + pageable.getPageSize() + "&sort=" + pageable.getSort();
+        }
+        return String.valueOf(part);
+    }
+
+    private static String encode(String value) {
+        return isEmpty(value) ? "" : URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private record Cached(long version, long readAt) {
+    }
+
+}
@@ -0,0 +1,55 @@
+package study.jpaquerydsl.listener;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Member, Team이 바뀐 트랜잭션의 커밋 직전(flush 후)에 data_version을 한 번 증가
+ * 엔티티마다 증가하면 첫 변경부터 커밋까지 data_version 행 락을 잡고 있으므로 트랜잭션당 한 번, 마지막에
+ */
+public class MemberDataVersionListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final Set<SharedSessionContractImplementor> pending = ConcurrentHashMap.newKeySet(); // 증가 예약된 세션
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void changed(Object entity, EventSource session) {
+        if (!(entity instanceof Member || entity instanceof Team) || !pending.add(session)) {
+            return;
+        }
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) beforeCompletion -> {
+            pending.remove(beforeCompletion);
+            beforeCompletion.doWork(MemberDataVersion::increment);
+        });
+        // 롤백되면 before 단계가 실행되지 않으므로 여기서 정리
+        session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, afterCompletion) ->
+                pending.remove(afterCompletion));
+    }
+
+}
@@ -0,0 +1,62 @@
+package study.jpaquerydsl.listener;
+
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.repository.MemberTeamViewWriter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Member, Team의 insert/update/delete 직후 같은 트랜잭션(같은 커넥션)에서 member_team을 갱신
+ * JPQL 벌크 연산은 이벤트가 발생하지 않으므로 MemberTeamViewWriter를 직접 호출해야 함
+ */
+public class MemberTeamViewListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long memberId = (Long) event.getId();
+            event.getSession().doWork(connection -> MemberTeamViewWriter.refresh(connection, List.of(memberId)));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long memberId = (Long) event.getId();
+            event.getSession().doWork(connection -> MemberTeamViewWriter.refresh(connection, List.of(memberId)));
+        } else if (event.getEntity() instanceof Team team && isNameChanged(event)) {
+            event.getSession().doWork(connection -> MemberTeamViewWriter.renameTeam(connection, team.getId(), team.getName()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            Long memberId = (Long) event.getId();
+            event.getSession().doWork(connection -> MemberTeamViewWriter.delete(connection, memberId));
+        } else if (event.getEntity() instanceof Team) {
+            Long teamId = (Long) event.getId();
+            event.getSession().doWork(connection -> MemberTeamViewWriter.detachTeam(connection, teamId));
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 팀 이름이 바뀐 경우에만 member_team 갱신
+    private boolean isNameChanged(PostUpdateEvent event) {
+        if (event.getOldState() == null) {
+            return true;
+        }
+        int index = Arrays.asList(event.getPersister().getPropertyNames()).indexOf("name");
+        return !Objects.equals(event.getOldState()[index], event.getState()[index]);
+    }
+
+}
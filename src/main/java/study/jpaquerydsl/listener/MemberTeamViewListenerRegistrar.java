@@ -0,0 +1,55 @@
+package study.jpaquerydsl.listener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.repository.MemberTeamViewWriter;
+
+/**
+ * member.read-model.enabled=true 일 때 member_team 동기화 리스너를 Hibernate에 등록
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.read-model.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MemberTeamViewListenerRegistrar {
+
+    private final EntityManagerFactory emf;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        MemberTeamViewListener listener = new MemberTeamViewListener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+    }
+
+    /**
+     * 리스너 등록 전에 저장된 데이터까지 맞추도록 기동 완료 시점에 재생성, 비어 있거나 SCHEMA_VERSION이 바뀐 경우만
+     * ApplicationReadyEvent 리스너가 끝난 뒤에 ACCEPTING_TRAFFIC이 발행되므로 재생성이 끝날 때까지 readiness는 REFUSING_TRAFFIC
+     * read-model을 끈 채로 기동하면 MemberTeamViewStaleMarker가 기록을 지우므로 다시 켤 때 재생성
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Boolean rebuilt = jdbcTemplate.execute((ConnectionCallback<Boolean>) MemberTeamViewWriter::rebuildIfStale);
+        log.info("member_team {}", Boolean.TRUE.equals(rebuilt) ? "rebuilt" : "up to date, rebuild skipped");
+    }
+
+}
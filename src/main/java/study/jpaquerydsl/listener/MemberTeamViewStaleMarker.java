@@ -0,0 +1,34 @@
+package study.jpaquerydsl.listener;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.jpaquerydsl.repository.MemberTeamViewWriter;
+
+/**
+ * member.read-model.enabled=false 로 기동하면 member_team 스키마 버전 기록을 지움
+ * 끈 동안의 변경은 member_team에 반영되지 않으므로, 다시 켜고 기동할 때 MemberTeamViewListenerRegistrar가 재생성하도록
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.read-model.enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MemberTeamViewStaleMarker {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void markStale() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            MemberTeamViewWriter.markStale(connection);
+            return null;
+        });
+        log.info("member_team marked stale, rebuilt when read-model is enabled again");
+    }
+
+}
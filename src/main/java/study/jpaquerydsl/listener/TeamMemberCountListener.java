@@ -0,0 +1,107 @@
+package study.jpaquerydsl.listener;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Member의 insert/update/delete가 flush될 때 같은 트랜잭션에서 team.member_count를 증감
+ * update team set member_count = member_count + ? 로 DB에서 더하므로 같은 팀을 동시에 바꿔도 갱신이 사라지지 않음
+ * (Team.memberCount는 dirty checking으로 쓰지 않음, 엔티티 값은 이 영속성 컨텍스트에서 본 값)
+ * JPQL 벌크 연산, JDBC 경로(MemberCsvImporter, JdbcMemberUpdateFlusher)는 이벤트가 없으므로 직접 증감
+ */
+@Component
+@RequiredArgsConstructor
+public class TeamMemberCountListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String ADD_MEMBER_COUNT =
+            "update team set member_count = member_count + ? where team_id = ?";
+
+    private final EntityManagerFactory emf;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = emf.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Member) {
+            move(event.getSession(), null, teamId(event.getPersister(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        // oldState가 없으면(detached 엔티티 update) 이전 팀을 알 수 없음
+        if (event.getEntity() instanceof Member && event.getOldState() != null) {
+            move(event.getSession(),
+                    teamId(event.getPersister(), event.getOldState()),
+                    teamId(event.getPersister(), event.getState()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Member) {
+            move(event.getSession(), teamId(event.getPersister(), event.getDeletedState()), null);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    // 이전 팀 -1, 새 팀 +1 (동시에 반대 방향으로 옮기는 트랜잭션과 데드락 나지 않도록 team_id 순서로)
+    private void move(EventSource session, Long from, Long to) {
+        if (Objects.equals(from, to)) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(ADD_MEMBER_COUNT)) {
+                if (from != null && (to == null || from < to)) {
+                    add(ps, from, -1);
+                    add(ps, to, 1);
+                } else {
+                    add(ps, to, 1);
+                    add(ps, from, -1);
+                }
+            }
+        });
+    }
+
+    private void add(PreparedStatement ps, Long teamId, int delta) throws SQLException {
+        if (teamId == null) {
+            return;
+        }
+        ps.setInt(1, delta);
+        ps.setLong(2, teamId);
+        ps.executeUpdate();
+    }
+
+    // 프록시여도 id만 읽으므로 초기화하지 않음
+    private Long teamId(EntityPersister persister, Object[] state) {
+        int index = Arrays.asList(persister.getPropertyNames()).indexOf("team");
+        return state[index] instanceof Team team ? team.getId() : null;
+    }
+
+}
@@ -0,0 +1,140 @@
+package study.jpaquerydsl.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.jpaquerydsl.listener.MemberDataChangedEvent;
+import study.jpaquerydsl.listener.MemberDataVersion;
+
+import java.util.*;
+
+/**
+ * MemberWriteBehindBuffer의 변경을 JDBC batch update로 반영
+ * 같은 트랜잭션에서 team.member_count, member_team(읽기 모델), data_version도 맞추고 커밋 후 벌크 변경 이벤트 발행
+ */
+@Component
+@ConditionalOnProperty(name = "member.write-behind.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class JdbcMemberUpdateFlusher implements MemberUpdateFlusher {
+
+    private static final int MAX_IN_SIZE = 1000; // in 절 최대 파라미터 개수
+
+    private static final String UPDATE_AGE =
+            "update member set age = ? where member_id = ?";
+
+    private static final String UPDATE_TEAM =
+            "update member set team_id = ? where member_id = ?";
+
+    private static final String ADD_MEMBER_COUNT = // 팀 크기와 상관없이 행 하나만 갱신 (재집계하지 않음)
+            "update team set member_count = member_count + ? where team_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${member.read-model.enabled:false}")
+    private boolean readModelEnabled;
+
+    @Override
+    @Transactional
+    public void flush(Collection<MemberUpdate> updates) {
+        // member_id 순으로 update해서 다른 트랜잭션과 락 순서를 맞춤 (데드락 방지)
+        List<MemberUpdate> sorted = updates.stream()
+                .sorted(Comparator.comparing(MemberUpdate::getMemberId))
+                .toList();
+
+        List<Object[]> ages = new ArrayList<>();
+        List<Object[]> teams = new ArrayList<>();
+        List<Long> teamChangedIds = new ArrayList<>();
+        for (MemberUpdate update : sorted) {
+            if (update.getAge() != null) {
+                ages.add(new Object[]{update.getAge(), update.getMemberId()});
+            }
+            if (update.isTeamChanged()) {
+                teams.add(new Object[]{update.getTeamId(), update.getMemberId()});
+                teamChangedIds.add(update.getMemberId());
+            }
+        }
+
+        if (!ages.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_AGE, ages);
+        }
+        if (!teams.isEmpty()) {
+            Map<Long, Long> previousTeamIds = currentTeamIds(teamChangedIds); // update 전 팀 (행 락)
+            jdbcTemplate.batchUpdate(UPDATE_TEAM, teams);
+            addMemberCounts(sorted, previousTeamIds);
+        }
+
+        if (readModelEnabled) {
+            List<Long> memberIds = sorted.stream().map(MemberUpdate::getMemberId).toList();
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                MemberTeamViewWriter.refresh(connection, memberIds);
+                return null;
+            });
+        }
+
+        // Hibernate 이벤트를 거치지 않으므로 ETag 버전 증가, 커밋 후 이벤트 발행을 직접
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            MemberDataVersion.increment(connection);
+            return null;
+        });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(MemberDataChangedEvent.bulk());
+            }
+        });
+    }
+
+    /**
+     * member_id -> 현재 team_id (팀 없으면 null), 없는 member는 빠짐
+     * for update로 읽어서 커밋 전에 다른 트랜잭션이 팀을 바꾸지 못하게 함 (증감 기준이 어긋나지 않도록)
+     */
+    private Map<Long, Long> currentTeamIds(List<Long> memberIds) {
+        Map<Long, Long> teamIds = new HashMap<>();
+        for (int from = 0; from < memberIds.size(); from += MAX_IN_SIZE) {
+            List<Long> chunk = memberIds.subList(from, Math.min(from + MAX_IN_SIZE, memberIds.size()));
+            String sql = "select member_id, team_id from member where member_id in (" +
+                    String.join(",", Collections.nCopies(chunk.size(), "?")) + ") for update";
+            jdbcTemplate.query(sql, rs -> {
+                long teamId = rs.getLong(2);
+                teamIds.put(rs.getLong(1), rs.wasNull() ? null : teamId);
+            }, chunk.toArray());
+        }
+        return teamIds;
+    }
+
+    // 이전 팀 -1, 새 팀 +1을 팀별로 합쳐서 team_id 순으로 update (다른 트랜잭션과 락 순서를 맞춤)
+    private void addMemberCounts(List<MemberUpdate> updates, Map<Long, Long> previousTeamIds) {
+        Map<Long, Integer> deltas = new TreeMap<>();
+        for (MemberUpdate update : updates) {
+            if (!update.isTeamChanged() || !previousTeamIds.containsKey(update.getMemberId())) {
+                continue;
+            }
+            Long previousTeamId = previousTeamIds.get(update.getMemberId());
+            if (Objects.equals(previousTeamId, update.getTeamId())) {
+                continue;
+            }
+            if (previousTeamId != null) {
+                deltas.merge(previousTeamId, -1, Integer::sum);
+            }
+            if (update.getTeamId() != null) {
+                deltas.merge(update.getTeamId(), 1, Integer::sum);
+            }
+        }
+        List<Object[]> args = deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0)
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey()})
+                .toList();
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_MEMBER_COUNT, args);
+        }
+    }
+
+}
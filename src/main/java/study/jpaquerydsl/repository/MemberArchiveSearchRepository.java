@@ -0,0 +1,74 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.Projections;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQuery;
+import com.querydsl.sql.SQLQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.sql.SMember;
+
+import java.util.List;
+
+import static study.jpaquerydsl.entity.sql.SMember.member;
+import static study.jpaquerydsl.entity.sql.SMemberArchive.memberArchive;
+import static study.jpaquerydsl.entity.sql.STeam.team;
+
+/**
+ * includeArchived 검색
+ * member와 member_archive를 union all 한 결과를 m(SMember.member)으로 두고 기존 조건(MemberSqlConditions), 정렬을 그대로 적용
+ * 바깥 where 조건은 MySQL 8.0.22+에서 union 안쪽 쿼리로 내려가서 각 테이블의 인덱스를 사용
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberArchiveSearchRepository {
+
+    private static final SMember hot = new SMember("hot");
+
+    private static final ConstructorExpression<MemberTeamDto> PROJECTION = Projections.constructor(
+            MemberTeamDto.class,
+            member.memberId,
+            member.username,
+            member.age,
+            team.teamId,
+            team.name
+    );
+
+    private final SQLQueryFactory sqlQueryFactory;
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return query(PROJECTION, condition).fetch();
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> content = query(PROJECTION, condition)
+                .orderBy(MemberSqlConditions.orderBy(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        SQLQuery<Long> countQuery = query(member.count(), condition);
+        return PageableExecutionUtils.getPage(content, pageable, countQuery::fetchOne);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> SQLQuery<T> query(Expression<T> select, MemberSearchCondition condition) {
+        return sqlQueryFactory
+                .select(select)
+                .unionAll(member,
+                        SQLExpressions.select(hot.memberId, hot.username, hot.age, hot.teamId).from(hot),
+                        SQLExpressions.select(memberArchive.memberId, memberArchive.username, memberArchive.age, memberArchive.teamId).from(memberArchive))
+                .leftJoin(team).on(team.teamId.eq(member.teamId))
+                .where(MemberSqlConditions.of(condition));
+    }
+
+}
@@ -0,0 +1,102 @@
+package study.jpaquerydsl.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+import study.jpaquerydsl.entity.Member;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 요청 단위 DataLoader
+ * load()로 id를 모아두고 dispatch() 시점에 in 쿼리 한 번으로 조회
+ * load()가 반환한 future를 join(), get() 하면 그때까지 모인 id를 자동으로 dispatch
+ * 같은 요청 안에서 다시 요청된 id는 캐시에서 반환
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class MemberBatchLoader {
+
+    private static final int MAX_BATCH_SIZE = 1000; // in 절 최대 파라미터 개수
+
+    private final MemberJpaRepository memberJpaRepository;
+
+    private final Map<Long, Optional<Member>> cache = new HashMap<>();
+    private final Map<Long, CompletableFuture<Optional<Member>>> pending = new LinkedHashMap<>();
+
+    public CompletableFuture<Optional<Member>> load(Long id) {
+        Optional<Member> cached = cache.get(id);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return pending.computeIfAbsent(id, key -> new DispatchingFuture()); // 중복 id는 하나로
+    }
+
+    public Optional<Member> find(Long id) {
+        return load(id).join();
+    }
+
+    public Map<Long, Member> findAll(Collection<Long> ids) {
+        ids.forEach(this::load);
+        dispatch();
+
+        Map<Long, Member> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            cache.get(id).ifPresent(foundMember -> result.put(id, foundMember));
+        }
+        return result;
+    }
+
+    public void dispatch() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending.keySet());
+        Map<Long, CompletableFuture<Optional<Member>>> batch = new LinkedHashMap<>(pending);
+        pending.clear();
+
+        try {
+            Map<Long, Member> found = new HashMap<>();
+            for (int from = 0; from < ids.size(); from += MAX_BATCH_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + MAX_BATCH_SIZE, ids.size()));
+                for (Member foundMember : memberJpaRepository.findAllByIds(chunk)) {
+                    found.put(foundMember.getId(), foundMember);
+                }
+            }
+            batch.forEach((id, future) -> {
+                Optional<Member> result = Optional.ofNullable(found.get(id));
+                cache.put(id, result);
+                future.complete(result);
+            });
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        }
+    }
+
+    // 결과를 기다리기 전에 모인 id를 한 번에 조회
+    private class DispatchingFuture extends CompletableFuture<Optional<Member>> {
+
+        @Override
+        public Optional<Member> join() {
+            dispatchIfPending();
+            return super.join();
+        }
+
+        @Override
+        public Optional<Member> get() throws InterruptedException, ExecutionException {
+            dispatchIfPending();
+            return super.get();
+        }
+
+        private void dispatchIfPending() {
+            if (!isDone()) {
+                dispatch();
+            }
+        }
+    }
+
+}
@@ -6,18 +6,21 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 import study.jpaquerydsl.dto.MemberSearchCondition;
 import study.jpaquerydsl.dto.MemberTeamDto;
 import study.jpaquerydsl.entity.Member;
 
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import static io.micrometer.common.util.StringUtils.isEmpty;
 import static org.springframework.util.StringUtils.hasText;
 import static study.jpaquerydsl.entity.QMember.*;
+import static study.jpaquerydsl.entity.QMemberTeamView.memberTeamView;
 import static study.jpaquerydsl.entity.QTeam.team;
 
 @Repository
@@ -26,6 +29,10 @@ public class MemberJpaRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final MemberArchiveSearchRepository memberArchiveSearchRepository;
+
+    @Value("${member.read-model.enabled:false}")
+    private boolean readModelEnabled; // true면 join 없이 member_team(MemberTeamView)에서 조회
 
 //    public MemberJpaRepository(EntityManager em) {
 //        this.em = em;
@@ -41,6 +48,14 @@ public class MemberJpaRepository {
         return Optional.ofNullable(foundMember);
     }
 
+    // in 절 하나로 여러 회원 조회 (hibernate.query.in_clause_parameter_padding 으로 plan 재사용)
+    public List<Member> findAllByIds(Collection<Long> ids) {
+        return queryFactory
+                .selectFrom(member)
+                .where(member.id.in(ids))
+                .fetch();
+    }
+
     public List<Member> findAll() {
         return em.createQuery("select m from Member m", Member.class).getResultList();
     }
@@ -108,6 +123,16 @@ public class MemberJpaRepository {
 
     //회원명, 팀명, 나이(ageGoe, ageLoe)
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        if (condition.isIncludeArchived()) {
+            return memberArchiveSearchRepository.search(condition);
+        }
+        if (readModelEnabled) {
+            return queryFactory
+                    .select(MemberRepositoryImpl.viewProjection())
+                    .from(memberTeamView)
+                    .where(MemberRepositoryImpl.viewConditions(condition))
+                    .fetch();
+        }
         return queryFactory
                 .select(Projections.constructor(
                         MemberTeamDto.class,
@@ -0,0 +1,193 @@
+package study.jpaquerydsl.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import static io.micrometer.common.util.StringUtils.isEmpty;
+
+/**
+ * 검색 조건의 선택도, 페이지 크기, 테이블 통계로 예상 결과 행 수를 계산해서 비싼 검색을 막음
+ * 엔드포인트별 설정 (member.cost-guard.{endpoint}.*)
+ * - max-rows: 예상 행 수가 넘으면 QueryCostExceededException (조건을 더 좁혀야 함), -1이면 제한 없음
+ * - max-page-size: 페이지 크기가 넘으면 줄여서 조회, -1이면 제한 없음
+ * 통계(행 수, username 카디널리티, age 범위, 팀 수)는 stats-ttl 동안 캐시
+ */
+@Component
+public class MemberQueryCostGuard {
+
+    private final Supplier<TableStats> statsLoader;
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+    private final boolean enabled;
+    private final long statsTtlNanos;
+
+    private final Map<String, Limits> limits = new ConcurrentHashMap<>();
+    private volatile TableStats stats;
+    private volatile long statsLoadedAt;
+
+    @Autowired
+    public MemberQueryCostGuard(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, Environment environment) {
+        this(() -> TableStats.load(jdbcTemplate), meterRegistry, environment);
+    }
+
+    MemberQueryCostGuard(Supplier<TableStats> statsLoader, MeterRegistry meterRegistry, Environment environment) {
+        this.statsLoader = statsLoader;
+        this.meterRegistry = meterRegistry;
+        this.environment = environment;
+        this.enabled = environment.getProperty("member.cost-guard.enabled", Boolean.class, true);
+        this.statsTtlNanos = environment.getProperty("member.cost-guard.stats-ttl", Duration.class, Duration.ofSeconds(60)).toNanos();
+    }
+
+    // 페이징 없는 검색 (예: /v1)
+    public void check(String endpoint, MemberSearchCondition condition) {
+        if (enabled) {
+            checkRows(endpoint, condition, limits(endpoint));
+        }
+    }
+
+    // 페이징 검색 (예: /v2), 페이지 크기를 줄인 Pageable을 반환
+    public Pageable check(String endpoint, MemberSearchCondition condition, Pageable pageable) {
+        if (!enabled) {
+            return pageable;
+        }
+        Limits limit = limits(endpoint);
+        checkRows(endpoint, condition, limit);
+        if (limit.maxPageSize() > 0 && pageable.isPaged() && pageable.getPageSize() > limit.maxPageSize()) {
+            meterRegistry.counter("member.search.cost.clamped", "endpoint", endpoint).increment();
+            // offset은 유지 (요청한 페이지의 첫 행부터 maxPageSize개, PageRequest로 만들면 페이지 경계로 내려감)
+            return new OffsetPageRequest(pageable.getOffset(), limit.maxPageSize(), pageable.getSort());
+        }
+        return pageable;
+    }
+
+    /**
+     * 테이블 행 수 x 조건별 선택도
+     * username = 1 / username 카디널리티, teamName = 1 / 팀 수, 나이 범위 = 범위 / (max age - min age + 1)
+     */
+    public long estimateRows(MemberSearchCondition condition) {
+        TableStats current = stats();
+        double rows = current.memberRows() + (condition.isIncludeArchived() ? current.archiveRows() : 0);
+        if (!isEmpty(condition.getUsername())) {
+            rows /= Math.max(1, current.usernameCardinality());
+        }
+        if (!isEmpty(condition.getTeamName())) {
+            rows /= Math.max(1, current.teamRows());
+        }
+        rows *= ageSelectivity(condition, current);
+        return (long) Math.ceil(rows);
+    }
+
+    private void checkRows(String endpoint, MemberSearchCondition condition, Limits limit) {
+        if (limit.maxRows() < 0) {
+            return;
+        }
+        long estimatedRows = estimateRows(condition);
+        DistributionSummary.builder("member.search.cost.estimated.rows")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(estimatedRows);
+        if (estimatedRows > limit.maxRows()) {
+            Counter.builder("member.search.cost.rejected").tag("endpoint", endpoint).register(meterRegistry).increment();
+            throw new QueryCostExceededException(estimatedRows, limit.maxRows());
+        }
+    }
+
+    private double ageSelectivity(MemberSearchCondition condition, TableStats current) {
+        if (condition.getAgeGoe() == null && condition.getAgeLoe() == null) {
+            return 1;
+        }
+        int low = Math.max(condition.getAgeGoe() == null ? current.minAge() : condition.getAgeGoe(), current.minAge());
+        int high = Math.min(condition.getAgeLoe() == null ? current.maxAge() : condition.getAgeLoe(), current.maxAge());
+        if (high < low) {
+            return 0;
+        }
+        return (high - low + 1) / (double) (current.maxAge() - current.minAge() + 1);
+    }
+
+    private Limits limits(String endpoint) {
+        return limits.computeIfAbsent(endpoint, key -> new Limits(
+                environment.getProperty("member.cost-guard." + key + ".max-rows", Long.class, -1L),
+                environment.getProperty("member.cost-guard." + key + ".max-page-size", Integer.class, -1)));
+    }
+
+    private TableStats stats() {
+        TableStats current = stats;
+        if (current != null && System.nanoTime() - statsLoadedAt < statsTtlNanos) {
+            return current;
+        }
+        synchronized (this) {
+            if (stats == null || System.nanoTime() - statsLoadedAt >= statsTtlNanos) {
+                stats = statsLoader.get();
+                statsLoadedAt = System.nanoTime();
+            }
+            return stats;
+        }
+    }
+
+    private record Limits(long maxRows, int maxPageSize) {
+    }
+
+    /**
+     * MySQL 통계(information_schema)로 계산, 없는 DB(H2 등)는 count(*)로 대체
+     */
+    record TableStats(long memberRows, long archiveRows, long teamRows, long usernameCardinality, int minAge, int maxAge) {
+
+        static TableStats load(JdbcTemplate jdbcTemplate) {
+            long memberRows = tableRows(jdbcTemplate, "member");
+            Map<String, Object> ages = jdbcTemplate.queryForMap("select min(age) as min_age, max(age) as max_age from member");
+            Number minAge = (Number) ages.get("min_age");
+            Number maxAge = (Number) ages.get("max_age");
+            return new TableStats(
+                    memberRows,
+                    tableRows(jdbcTemplate, "member_archive"),
+                    tableRows(jdbcTemplate, "team"),
+                    usernameCardinality(jdbcTemplate, memberRows),
+                    minAge == null ? 0 : minAge.intValue(),
+                    maxAge == null ? 0 : maxAge.intValue());
+        }
+
+        private static long tableRows(JdbcTemplate jdbcTemplate, String table) {
+            try {
+                Long rows = jdbcTemplate.queryForObject(
+                        "select table_rows from information_schema.tables where table_schema = database() and table_name = ?",
+                        Long.class, table);
+                if (rows != null) {
+                    return rows;
+                }
+            } catch (DataAccessException e) {
+                // table_rows가 없는 DB
+            }
+            return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+        }
+
+        private static long usernameCardinality(JdbcTemplate jdbcTemplate, long memberRows) {
+            try {
+                Long cardinality = jdbcTemplate.queryForObject(
+                        "select cardinality from information_schema.statistics" +
+                        " where table_schema = database() and table_name = 'member' and index_name = 'idx_member_username' and seq_in_index = 1",
+                        Long.class);
+                if (cardinality != null) {
+                    return cardinality;
+                }
+            } catch (DataAccessException e) {
+                // 통계가 없는 DB
+            }
+            return memberRows; // username이 모두 다르다고 가정
+        }
+
+    }
+
+}
@@ -0,0 +1,86 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.core.types.Ops;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.WindowOver;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberAgeStatDto;
+import study.jpaquerydsl.dto.MemberRankDto;
+
+import java.util.List;
+
+import static study.jpaquerydsl.entity.sql.SMember.member;
+import static study.jpaquerydsl.entity.sql.STeam.team;
+
+/**
+ * 순위, 팀 평균 같은 분석 조회
+ * 상관 서브쿼리(JPAExpressions) 대신 window function을 사용해서 member 테이블을 한 번만 읽음
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberRankingRepository {
+
+    private final SQLQueryFactory sqlQueryFactory;
+
+    /**
+     * 팀별 나이가 많은 순으로 상위 limit명 (나이가 같으면 member_id 순)
+     */
+    public List<MemberRankDto> findOldestPerTeam(int limit) {
+        PathBuilder<Object> ranked = new PathBuilder<>(Object.class, "ranked");
+
+        return sqlQueryFactory
+                .select(Projections.constructor(
+                        MemberRankDto.class,
+                        ranked.getNumber("member_id", Long.class),
+                        ranked.getString("username"),
+                        ranked.getNumber("age", Integer.class),
+                        ranked.getNumber("team_id", Long.class),
+                        ranked.getString("name"),
+                        ranked.getNumber("rnk", Long.class)
+                ))
+                .from(SQLExpressions
+                        .select(member.memberId,
+                                member.username,
+                                member.age,
+                                team.teamId,
+                                team.name,
+                                SQLExpressions.rowNumber()
+                                        .over()
+                                        .partitionBy(member.teamId)
+                                        .orderBy(member.age.desc(), member.memberId.asc())
+                                        .as("rnk"))
+                        .from(member)
+                        .join(team).on(team.teamId.eq(member.teamId)), ranked)
+                .where(ranked.getNumber("rnk", Long.class).loe((long) limit))
+                .orderBy(ranked.getNumber("team_id", Long.class).asc(), ranked.getNumber("rnk", Long.class).asc())
+                .fetch();
+    }
+
+    /**
+     * 회원 나이와 소속 팀 평균 나이
+     */
+    public List<MemberAgeStatDto> findAgeWithTeamAverage() {
+        WindowOver<Double> teamAvgAge = new WindowOver<>(Double.class, Ops.AggOps.AVG_AGG, member.age);
+
+        return sqlQueryFactory
+                .select(Projections.constructor(
+                        MemberAgeStatDto.class,
+                        member.memberId,
+                        member.username,
+                        member.age,
+                        team.name,
+                        teamAvgAge.over().partitionBy(member.teamId)
+                ))
+                .from(member)
+                .join(team).on(team.teamId.eq(member.teamId))
+                .orderBy(member.memberId.asc())
+                .fetch();
+    }
+
+}
@@ -2,10 +2,13 @@ package study.jpaquerydsl.repository;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import study.jpaquerydsl.dto.MemberField;
+import study.jpaquerydsl.dto.MemberFieldsDto;
 import study.jpaquerydsl.dto.MemberSearchCondition;
 import study.jpaquerydsl.dto.MemberTeamDto;
 
 import java.util.List;
+import java.util.Set;
 
 public interface MemberRepositoryCustom {
 
@@ -17,4 +20,9 @@ public interface MemberRepositoryCustom {
 
     Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable);
 
+    // 선택한 필드만 조회
+    List<MemberFieldsDto> search(MemberSearchCondition condition, Set<MemberField> fields);
+
+    Page<MemberFieldsDto> searchPage(MemberSearchCondition condition, Set<MemberField> fields, Pageable pageable);
+
 }
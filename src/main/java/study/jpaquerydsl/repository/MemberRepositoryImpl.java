@@ -1,30 +1,69 @@
 package study.jpaquerydsl.repository;
 
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.Expression;
 import com.querydsl.core.types.Projections;
 import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.jpa.impl.JPAQuery;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.support.PageableExecutionUtils;
+import study.jpaquerydsl.dto.MemberField;
+import study.jpaquerydsl.dto.MemberFieldsDto;
 import study.jpaquerydsl.dto.MemberSearchCondition;
 import study.jpaquerydsl.dto.MemberTeamDto;
 
-import java.util.List;
+import java.util.*;
 
 import static io.micrometer.common.util.StringUtils.isEmpty;
 import static study.jpaquerydsl.entity.QMember.member;
+import static study.jpaquerydsl.entity.QMemberTeamView.memberTeamView;
 import static study.jpaquerydsl.entity.QTeam.team;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
+    // fields= 로 선택한 필드 -> select 대상, teamId는 member.team_id라 join 없이 조회
+    private static final Map<MemberField, Expression<?>> MEMBER_FIELDS = new EnumMap<>(Map.<MemberField, Expression<?>>of(
+            MemberField.MEMBER_ID, member.id,
+            MemberField.USERNAME, member.username,
+            MemberField.AGE, member.age,
+            MemberField.TEAM_ID, member.team.id,
+            MemberField.TEAM_NAME, team.name));
+    private static final Map<MemberField, Expression<?>> VIEW_FIELDS = new EnumMap<>(Map.<MemberField, Expression<?>>of(
+            MemberField.MEMBER_ID, memberTeamView.memberId,
+            MemberField.USERNAME, memberTeamView.username,
+            MemberField.AGE, memberTeamView.age,
+            MemberField.TEAM_ID, memberTeamView.teamId,
+            MemberField.TEAM_NAME, memberTeamView.teamName));
+
     private final JPAQueryFactory queryFactory;
+    private final MemberWindowPageRepository memberWindowPageRepository;
+    private final MemberArchiveSearchRepository memberArchiveSearchRepository;
+
+    @Value("${member.read-model.enabled:false}")
+    private boolean readModelEnabled; // true면 join 없이 member_team(MemberTeamView)에서 조회
+
+    @Value("${member.search-page.window-count:false}")
+    private boolean windowCount; // true면 content + count(*) over()를 쿼리 한 번으로 조회
 
     @Override
     //회원명, 팀명, 나이(ageGoe, ageLoe)
     public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        if (condition.isIncludeArchived()) {
+            return memberArchiveSearchRepository.search(condition);
+        }
+        if (readModelEnabled) {
+            return queryFactory
+                    .select(viewProjection())
+                    .from(memberTeamView)
+                    .where(viewConditions(condition))
+                    .fetch();
+        }
         return queryFactory
                 .select(Projections.constructor(
                         MemberTeamDto.class,
@@ -46,6 +85,18 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
 
     @Override
     public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        if (condition.isIncludeArchived()) {
+            return memberArchiveSearchRepository.searchPage(condition, pageable);
+        }
+        if (readModelEnabled) {
+            return searchPageFromView(condition, pageable);
+        }
+        if (windowCount) {
+            Page<MemberTeamDto> page = memberWindowPageRepository.searchPage(condition, pageable);
+            if (page != null) {
+                return page;
+            }
+        }
 
         List<MemberTeamDto> result = queryFactory
                 .select(Projections.constructor(
@@ -63,22 +114,148 @@ public class MemberRepositoryImpl implements MemberRepositoryCustom {
                         ageGoe(condition.getAgeGoe()),
                         ageLoe(condition.getAgeLoe())
                 )
+                .orderBy(MemberSortKey.orderBy(pageable.getSort(), MemberSortKey::jpa))
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
 //                .fetchResults(); // deprecated
                 .fetch();
 
-        JPAQuery<Long> countQuery = getTotal();
+        JPAQuery<Long> countQuery = getTotal(condition);
 
 //        return new PageImpl<>(result, pageable, total);
 
         return PageableExecutionUtils.getPage(result, pageable, () -> countQuery.fetchOne()); // 조회된 결과(result)와 pageable을 체크해서 count쿼리를 날려야할 때만 날림
     }
 
-    private JPAQuery<Long> getTotal() {
-        return queryFactory
+    // team은 to-one이라 left join해도 개수가 같음 -> teamName 조건이 있을 때만 join
+    private JPAQuery<Long> getTotal(MemberSearchCondition condition) {
+        JPAQuery<Long> query = queryFactory
                 .select(member.count())
                 .from(member);
+        if (!isEmpty(condition.getTeamName())) {
+            query.leftJoin(member.team, team);
+        }
+        return query
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                );
+    }
+
+    @Override
+    public List<MemberFieldsDto> search(MemberSearchCondition condition, Set<MemberField> fields) {
+        if (condition.isIncludeArchived()) {
+            return search(condition).stream()
+                    .map(dto -> MemberFieldsDto.of(dto, fields))
+                    .toList();
+        }
+        return toFieldsDtos(fieldsQuery(condition, fields).fetch(), fields);
+    }
+
+    @Override
+    public Page<MemberFieldsDto> searchPage(MemberSearchCondition condition, Set<MemberField> fields, Pageable pageable) {
+        if (condition.isIncludeArchived()) {
+            return searchPage(condition, pageable).map(dto -> MemberFieldsDto.of(dto, fields));
+        }
+        List<Tuple> result = fieldsQuery(condition, fields)
+                .orderBy(readModelEnabled
+                        ? MemberSortKey.orderBy(pageable.getSort(), MemberSortKey::view)
+                        : MemberSortKey.orderBy(pageable.getSort(), MemberSortKey::jpa))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        JPAQuery<Long> countQuery = readModelEnabled ? getViewTotal(condition) : getTotal(condition);
+
+        return PageableExecutionUtils.getPage(toFieldsDtos(result, fields), pageable, countQuery::fetchOne);
+    }
+
+    /**
+     * 선택한 필드만 select
+     * teamName 필드도 teamName 조건도 없으면 team join 생략 (member 인덱스만으로 처리)
+     */
+    JPAQuery<Tuple> fieldsQuery(MemberSearchCondition condition, Set<MemberField> fields) {
+        Map<MemberField, Expression<?>> paths = readModelEnabled ? VIEW_FIELDS : MEMBER_FIELDS;
+        Expression<?>[] select = fields.stream()
+                .map(paths::get)
+                .toArray(Expression<?>[]::new);
+
+        if (readModelEnabled) {
+            return queryFactory
+                    .select(select)
+                    .from(memberTeamView)
+                    .where(viewConditions(condition));
+        }
+        JPAQuery<Tuple> query = queryFactory
+                .select(select)
+                .from(member);
+        if (!isEmpty(condition.getTeamName()) || fields.stream().anyMatch(MemberField::teamJoin)) {
+            query.leftJoin(member.team, team);
+        }
+        return query
+                .where(usernameEq(condition.getUsername()),
+                        teamNameEq(condition.getTeamName()),
+                        ageGoe(condition.getAgeGoe()),
+                        ageLoe(condition.getAgeLoe())
+                );
+    }
+
+    // tuple은 fields 순서(MemberField 순서), MemberFieldsDto는 ordinal 위치
+    private List<MemberFieldsDto> toFieldsDtos(List<Tuple> tuples, Set<MemberField> fields) {
+        List<MemberFieldsDto> result = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Object[] values = new Object[MemberField.values().length];
+            int index = 0;
+            for (MemberField field : fields) {
+                values[field.ordinal()] = tuple.get(index++, Object.class);
+            }
+            result.add(new MemberFieldsDto(fields, values));
+        }
+        return result;
+    }
+
+    private Page<MemberTeamDto> searchPageFromView(MemberSearchCondition condition, Pageable pageable) {
+        List<MemberTeamDto> result = queryFactory
+                .select(viewProjection())
+                .from(memberTeamView)
+                .where(viewConditions(condition))
+                .orderBy(MemberSortKey.orderBy(pageable.getSort(), MemberSortKey::view))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+
+        JPAQuery<Long> countQuery = getViewTotal(condition);
+
+        return PageableExecutionUtils.getPage(result, pageable, countQuery::fetchOne);
+    }
+
+    private JPAQuery<Long> getViewTotal(MemberSearchCondition condition) {
+        return queryFactory
+                .select(memberTeamView.count())
+                .from(memberTeamView)
+                .where(viewConditions(condition));
+    }
+
+    // member_team 조회 (MemberJpaRepository.search 에서도 사용)
+    static ConstructorExpression<MemberTeamDto> viewProjection() {
+        return Projections.constructor(
+                MemberTeamDto.class,
+                memberTeamView.memberId,
+                memberTeamView.username,
+                memberTeamView.age,
+                memberTeamView.teamId,
+                memberTeamView.teamName
+        );
+    }
+
+    static BooleanExpression[] viewConditions(MemberSearchCondition condition) {
+        return new BooleanExpression[]{
+                isEmpty(condition.getUsername()) ? null : memberTeamView.username.eq(condition.getUsername()),
+                isEmpty(condition.getTeamName()) ? null : memberTeamView.teamName.eq(condition.getTeamName()),
+                condition.getAgeGoe() == null ? null : memberTeamView.age.goe(condition.getAgeGoe()),
+                condition.getAgeLoe() == null ? null : memberTeamView.age.loe(condition.getAgeLoe())
+        };
     }
 
     private BooleanExpression usernameEq(String username) {
@@ -0,0 +1,135 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
+import org.springframework.data.domain.Sort;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.sql.SMember;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+import static study.jpaquerydsl.entity.QMember.member;
+import static study.jpaquerydsl.entity.QMemberTeamView.memberTeamView;
+
+/**
+ * 정렬 가능한 속성 (Pageable sort= 이름) -> 조회 방식별 정렬 대상
+ * jpa: member left join team (MemberRepositoryImpl), view: member_team, sql: querydsl-sql member m (MemberSqlConditions, 샤드)
+ * 인덱스로 정렬할 수 있는 경우만 등록 (teamName은 join된 테이블 기준이라 member_team에서만)
+ */
+public enum MemberSortKey {
+
+    MEMBER_ID("memberId", member.id, memberTeamView.memberId, SMember.member.memberId, MemberTeamDto::getMemberId),
+    USERNAME("username", member.username, memberTeamView.username, SMember.member.username, MemberTeamDto::getUsername),
+    AGE("age", member.age, memberTeamView.age, SMember.member.age, MemberTeamDto::getAge),
+    TEAM_NAME("teamName", null, memberTeamView.teamName, null, MemberTeamDto::getTeamName);
+
+    private final String property;
+    private final ComparableExpressionBase<?> jpa;
+    private final ComparableExpressionBase<?> view;
+    private final ComparableExpressionBase<?> sql;
+    private final Function<MemberTeamDto, Comparable<?>> value;
+
+    MemberSortKey(String property, ComparableExpressionBase<?> jpa, ComparableExpressionBase<?> view,
+                  ComparableExpressionBase<?> sql, Function<MemberTeamDto, Comparable<?>> value) {
+        this.property = property;
+        this.jpa = jpa;
+        this.view = view;
+        this.sql = sql;
+        this.value = value;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public ComparableExpressionBase<?> jpa() {
+        return jpa;
+    }
+
+    public ComparableExpressionBase<?> view() {
+        return view;
+    }
+
+    public ComparableExpressionBase<?> sql() {
+        return sql;
+    }
+
+    /**
+     * MemberTeamDto 비교 (샤드 결과 merge)
+     * null은 MySQL, H2 기본과 같이 가장 작은 값으로 취급
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<MemberTeamDto> comparator(boolean ascending) {
+        Comparator<MemberTeamDto> comparator = (a, b) -> {
+            Comparable left = value.apply(a);
+            Comparable right = value.apply(b);
+            if (left == null || right == null) {
+                return left == null ? (right == null ? 0 : -1) : 1;
+            }
+            return left.compareTo(right);
+        };
+        return ascending ? comparator : comparator.reversed();
+    }
+
+    /**
+     * Sort -> 정렬 키 목록, 마지막에 memberId를 붙여서 페이지 간 순서를 고정
+     * id는 보조 인덱스에 포함되어 있으므로 정렬 방향만 맞추면 인덱스 순서 그대로 읽음
+     * 인덱스 하나로 정렬되는 조합(속성 하나 + 같은 방향의 memberId)만 허용, 그 외에는 filesort라 UnsupportedSortException
+     * target(jpa, view, sql)이 없는 속성도 UnsupportedSortException
+     */
+    public static List<Order> orders(Sort sort, Function<MemberSortKey, ComparableExpressionBase<?>> target) {
+        List<Order> orders = new ArrayList<>();
+        boolean ascending = true;
+        boolean idOrdered = false;
+        for (Sort.Order order : sort) {
+            MemberSortKey key = of(order.getProperty(), target);
+            if (!orders.isEmpty() && (key != MEMBER_ID || idOrdered || order.isAscending() != ascending)) {
+                throw new UnsupportedSortException(sort.toString());
+            }
+            ascending = order.isAscending();
+            orders.add(new Order(key, ascending));
+            idOrdered |= key == MEMBER_ID;
+        }
+        if (!idOrdered) {
+            orders.add(new Order(MEMBER_ID, ascending));
+        }
+        return orders;
+    }
+
+    public static OrderSpecifier<?>[] orderBy(Sort sort, Function<MemberSortKey, ComparableExpressionBase<?>> target) {
+        return orders(sort, target).stream()
+                .map(order -> order.specifier(target))
+                .toArray(OrderSpecifier<?>[]::new);
+    }
+
+    private static MemberSortKey of(String property, Function<MemberSortKey, ComparableExpressionBase<?>> target) {
+        for (MemberSortKey key : values()) {
+            if (key.property.equals(property) && target.apply(key) != null) {
+                return key;
+            }
+        }
+        throw new UnsupportedSortException(property, Arrays.stream(values())
+                .filter(key -> target.apply(key) != null)
+                .map(MemberSortKey::property)
+                .toList());
+    }
+
+    public record Order(MemberSortKey key, boolean ascending) {
+
+        public OrderSpecifier<?> specifier(Function<MemberSortKey, ComparableExpressionBase<?>> target) {
+            ComparableExpressionBase<?> path = Objects.requireNonNull(target.apply(key));
+            return ascending ? path.asc() : path.desc();
+        }
+
+        public Comparator<MemberTeamDto> comparator() {
+            return key.comparator(ascending);
+        }
+
+    }
+
+}
@@ -0,0 +1,35 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Sort;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+
+import static io.micrometer.common.util.StringUtils.isEmpty;
+import static study.jpaquerydsl.entity.sql.SMember.member;
+import static study.jpaquerydsl.entity.sql.STeam.team;
+
+/**
+ * MemberSearchCondition -> querydsl-sql 조건 (member m left join team t)
+ * MemberRepositoryImpl의 JPQL 조건과 같은 의미, null인 조건은 where에서 무시됨
+ */
+public final class MemberSqlConditions {
+
+    private MemberSqlConditions() {
+    }
+
+    public static Predicate[] of(MemberSearchCondition condition) {
+        return new Predicate[]{
+                isEmpty(condition.getUsername()) ? null : member.username.eq(condition.getUsername()),
+                isEmpty(condition.getTeamName()) ? null : team.name.eq(condition.getTeamName()),
+                condition.getAgeGoe() == null ? null : member.age.goe(condition.getAgeGoe()),
+                condition.getAgeLoe() == null ? null : member.age.loe(condition.getAgeLoe())
+        };
+    }
+
+    // MemberRepositoryImpl과 같은 정렬 가능 속성 (MemberSortKey), 마지막에 member_id를 붙여서 순서 고정
+    public static OrderSpecifier<?>[] orderBy(Sort sort) {
+        return MemberSortKey.orderBy(sort, MemberSortKey::sql);
+    }
+
+}
@@ -0,0 +1,151 @@
+package study.jpaquerydsl.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+
+/**
+ * member_team(MemberTeamView) 갱신 SQL
+ * 원본(member, team)을 다시 읽어서 덮어쓰기 때문에 여러 번 실행해도 결과가 같음
+ */
+public final class MemberTeamViewWriter {
+
+    /**
+     * member_team 컬럼이나 채우는 방식(INSERT_ALL)이 바뀌면 올림, 다음 기동 때 한 번 재생성 (data_version name = 'member_team')
+     */
+    public static final long SCHEMA_VERSION = 1;
+
+    private static final String DELETE_MEMBER =
+            "delete from member_team where member_id = ?";
+
+    private static final String INSERT_MEMBER =
+            "insert into member_team (member_id, username, age, team_id, team_name)" +
+            " select m.member_id, m.username, m.age, t.team_id, t.name" +
+            " from member m left join team t on t.team_id = m.team_id" +
+            " where m.member_id = ?";
+
+    private static final String RENAME_TEAM =
+            "update member_team set team_name = ? where team_id = ?";
+
+    private static final String DETACH_TEAM =
+            "update member_team set team_id = null, team_name = null where team_id = ?";
+
+    private static final String DELETE_ALL =
+            "delete from member_team";
+
+    private static final String INSERT_ALL =
+            "insert into member_team (member_id, username, age, team_id, team_name)" +
+            " select m.member_id, m.username, m.age, t.team_id, t.name" +
+            " from member m left join team t on t.team_id = m.team_id";
+
+    // 여러 노드가 동시에 기동해도 한 노드만 재생성하도록 행 락
+    private static final String SELECT_SCHEMA_VERSION =
+            "select version from data_version where name = 'member_team' for update";
+
+    private static final String UPDATE_SCHEMA_VERSION =
+            "insert into data_version (name, version) values ('member_team', ?) on duplicate key update version = ?";
+
+    private static final String DELETE_SCHEMA_VERSION =
+            "delete from data_version where name = 'member_team'";
+
+    private static final String ANY_ROW =
+            "select 1 from member_team limit 1";
+
+    private MemberTeamViewWriter() {
+    }
+
+    public static void refresh(Connection connection, Collection<Long> memberIds) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_MEMBER);
+             PreparedStatement insert = connection.prepareStatement(INSERT_MEMBER)) {
+            for (Long memberId : memberIds) {
+                delete.setLong(1, memberId);
+                delete.addBatch();
+                insert.setLong(1, memberId);
+                insert.addBatch();
+            }
+            delete.executeBatch();
+            insert.executeBatch();
+        }
+    }
+
+    public static void delete(Connection connection, Long memberId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(DELETE_MEMBER)) {
+            ps.setLong(1, memberId);
+            ps.executeUpdate();
+        }
+    }
+
+    public static void delete(Connection connection, Collection<Long> memberIds) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(DELETE_MEMBER)) {
+            for (Long memberId : memberIds) {
+                ps.setLong(1, memberId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    public static void renameTeam(Connection connection, Long teamId, String name) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(RENAME_TEAM)) {
+            ps.setString(1, name);
+            ps.setLong(2, teamId);
+            ps.executeUpdate();
+        }
+    }
+
+    public static void detachTeam(Connection connection, Long teamId) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(DETACH_TEAM)) {
+            ps.setLong(1, teamId);
+            ps.executeUpdate();
+        }
+    }
+
+    public static void rebuild(Connection connection) throws SQLException {
+        try (PreparedStatement delete = connection.prepareStatement(DELETE_ALL);
+             PreparedStatement insert = connection.prepareStatement(INSERT_ALL)) {
+            delete.executeUpdate();
+            insert.executeUpdate();
+        }
+    }
+
+    /**
+     * member_team이 비어 있거나 기록된 SCHEMA_VERSION이 다를 때만 재생성
+     * 리스너가 켜진 동안의 변경은 이미 반영되어 있으므로 기동할 때마다 전체를 다시 쓰지 않음
+     * @return 재생성했으면 true
+     */
+    public static boolean rebuildIfStale(Connection connection) throws SQLException {
+        Long version;
+        try (PreparedStatement ps = connection.prepareStatement(SELECT_SCHEMA_VERSION);
+             ResultSet rs = ps.executeQuery()) {
+            version = rs.next() ? rs.getLong(1) : null;
+        }
+        boolean empty;
+        try (PreparedStatement ps = connection.prepareStatement(ANY_ROW);
+             ResultSet rs = ps.executeQuery()) {
+            empty = !rs.next();
+        }
+        if (!empty && version != null && version == SCHEMA_VERSION) {
+            return false;
+        }
+        rebuild(connection);
+        try (PreparedStatement ps = connection.prepareStatement(UPDATE_SCHEMA_VERSION)) {
+            ps.setLong(1, SCHEMA_VERSION);
+            ps.setLong(2, SCHEMA_VERSION);
+            ps.executeUpdate();
+        }
+        return true;
+    }
+
+    /**
+     * 기록된 SCHEMA_VERSION을 지움, 다음에 read-model을 켜고 기동하면 rebuildIfStale이 재생성
+     * read-model을 끈 동안에는 member_team이 갱신되지 않으므로 끈 채로 기동할 때 호출
+     */
+    public static void markStale(Connection connection) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(DELETE_SCHEMA_VERSION)) {
+            ps.executeUpdate();
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package study.jpaquerydsl.repository;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * MemberWriteBehindBuffer에 쌓이는 member 한 건의 변경 (age, team)
+ * 같은 member의 변경은 merge()로 합쳐서 마지막 값만 남김
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class MemberUpdate {
+
+    private final Long memberId;
+    private final Integer age;          // null이면 age 변경 없음
+    private final boolean teamChanged;
+    private final Long teamId;          // teamChanged일 때 null이면 팀 없음
+
+    public static MemberUpdate age(Long memberId, int age) {
+        return new MemberUpdate(memberId, age, false, null);
+    }
+
+    public static MemberUpdate team(Long memberId, Long teamId) {
+        return new MemberUpdate(memberId, null, true, teamId);
+    }
+
+    // newer에 있는 값이 우선
+    public MemberUpdate merge(MemberUpdate newer) {
+        return new MemberUpdate(
+                memberId,
+                newer.age != null ? newer.age : age,
+                teamChanged || newer.teamChanged,
+                newer.teamChanged ? newer.teamId : teamId);
+    }
+
+}
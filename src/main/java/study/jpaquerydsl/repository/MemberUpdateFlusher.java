@@ -0,0 +1,13 @@
+package study.jpaquerydsl.repository;
+
+import java.util.Collection;
+
+/**
+ * MemberWriteBehindBuffer에서 모은 변경을 저장소에 반영
+ * 전부 반영되거나 예외를 던져야 함 (예외면 버퍼가 다시 쌓아두고 다음 flush에서 재시도)
+ */
+public interface MemberUpdateFlusher {
+
+    void flush(Collection<MemberUpdate> updates);
+
+}
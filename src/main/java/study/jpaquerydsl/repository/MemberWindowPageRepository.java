@@ -0,0 +1,61 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Expression;
+import com.querydsl.sql.SQLExpressions;
+import com.querydsl.sql.SQLQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+
+import java.util.List;
+
+import static study.jpaquerydsl.entity.sql.SMember.member;
+import static study.jpaquerydsl.entity.sql.STeam.team;
+
+/**
+ * content와 전체 개수를 count(*) over() 컬럼으로 쿼리 한 번에 조회
+ * window function은 limit 전에 계산되므로 where 조건을 만족하는 전체 행 수가 각 행에 붙어서 나옴
+ */
+@Repository
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class MemberWindowPageRepository {
+
+    private final SQLQueryFactory sqlQueryFactory;
+
+    /**
+     * 조회된 행이 없으면 전체 개수를 알 수 없으므로 null (기존 count 쿼리 방식으로 조회)
+     */
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        Expression<Long> total = SQLExpressions.count().over();
+        List<Tuple> rows = sqlQueryFactory
+                .select(member.memberId, member.username, member.age, team.teamId, team.name, total)
+                .from(member)
+                .leftJoin(team).on(team.teamId.eq(member.teamId))
+                .where(MemberSqlConditions.of(condition))
+                .orderBy(MemberSqlConditions.orderBy(pageable.getSort()))
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .fetch();
+        if (rows.isEmpty()) {
+            return null;
+        }
+
+        List<MemberTeamDto> content = rows.stream()
+                .map(row -> new MemberTeamDto(
+                        row.get(member.memberId),
+                        row.get(member.username),
+                        row.get(member.age),
+                        row.get(team.teamId),
+                        row.get(team.name)))
+                .toList();
+        return new PageImpl<>(content, pageable, rows.get(0).get(total));
+    }
+
+}
@@ -0,0 +1,235 @@
+package study.jpaquerydsl.repository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 자주 바뀌는 member의 age, team 변경을 메모리에 모았다가 주기적으로 한 번에 반영 (write-behind)
+ * - member id별로 마지막 값만 남김 (같은 member를 초당 여러 번 바꿔도 flush당 update 한 번)
+ * - member id로 나눈 stripe마다 락을 따로 둬서 여러 스레드가 동시에 쌓을 수 있음
+ * - 버퍼 + flush 중인 member 수가 maxPending을 넘으면 호출 스레드가 maxWait만큼 기다리고, 넘으면 RejectedExecutionException
+ * - flush가 실패하면 다시 쌓아두고 다음 flush에서 재시도, 종료 시 남은 변경을 flush
+ * 반영 전까지 DB에는 이전 값이 보이므로 같은 필드를 JPA 변경 감지로도 바꾸는 곳에서는 쓰지 않음
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.write-behind.enabled", havingValue = "true")
+public class MemberWriteBehindBuffer {
+
+    private final MemberUpdateFlusher flusher;
+    private final Stripe[] stripes;
+    private final int maxPending;
+    private final long maxWaitNanos;
+    private final Semaphore capacity; // 버퍼 + flush 중인 member 수 제한
+
+    private final ReentrantLock flushLock = new ReentrantLock(); // flush는 한 번에 하나씩 (오래된 값이 나중에 반영되지 않도록)
+    private final AtomicBoolean flushQueued = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "member-write-behind");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean closed;
+
+    public MemberWriteBehindBuffer(MemberUpdateFlusher flusher,
+                                   @Value("${member.write-behind.stripes:16}") int stripes,
+                                   @Value("${member.write-behind.max-pending:10000}") int maxPending,
+                                   @Value("${member.write-behind.max-wait:1s}") Duration maxWait,
+                                   @Value("${member.write-behind.flush-interval:200ms}") Duration flushInterval) {
+        this.flusher = flusher;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.maxPending = maxPending;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.capacity = new Semaphore(maxPending);
+
+        long intervalMillis = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void updateAge(Long memberId, int age) {
+        offer(MemberUpdate.age(memberId, age));
+    }
+
+    public void changeTeam(Long memberId, Long teamId) {
+        offer(MemberUpdate.team(memberId, teamId));
+    }
+
+    // 버퍼에 있거나 flush 중인 member 수
+    public int pending() {
+        return maxPending - capacity.availablePermits();
+    }
+
+    private void offer(MemberUpdate update) {
+        Stripe stripe = stripeOf(update.getMemberId());
+        stripe.lock.lock();
+        try {
+            checkOpen();
+            if (stripe.updates.computeIfPresent(update.getMemberId(), (id, pending) -> pending.merge(update)) != null) {
+                return; // 이미 쌓인 member면 공간을 더 쓰지 않음
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        acquire(); // 락 밖에서 대기
+        stripe.lock.lock();
+        try {
+            if (closed) {
+                capacity.release();
+                checkOpen();
+            }
+            MemberUpdate pending = stripe.updates.get(update.getMemberId());
+            if (pending != null) { // 기다리는 동안 다른 스레드가 넣음
+                stripe.updates.put(update.getMemberId(), pending.merge(update));
+                capacity.release();
+            } else {
+                stripe.updates.put(update.getMemberId(), update);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+
+        if (capacity.availablePermits() < maxPending / 2) {
+            flushAsync(); // 주기를 기다리지 않고 비움
+        }
+    }
+
+    private void acquire() {
+        if (capacity.tryAcquire()) {
+            return;
+        }
+        flushAsync();
+        try {
+            if (!capacity.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("member write-behind buffer is full. maxPending=" + maxPending);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("interrupted while waiting for member write-behind buffer", e);
+        }
+    }
+
+    /**
+     * 쌓인 변경을 꺼내서 flusher로 반영하고 반영한 member 수를 반환
+     * 실패하면 꺼낸 변경을 다시 쌓아두고(그 사이 들어온 변경이 우선) 예외를 그대로 던짐
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<MemberUpdate> batch = drain();
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            try {
+                flusher.flush(batch);
+            } catch (RuntimeException e) {
+                requeue(batch);
+                throw e;
+            }
+            capacity.release(batch.size());
+            return batch.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private List<MemberUpdate> drain() {
+        List<MemberUpdate> batch = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                batch.addAll(stripe.updates.values());
+                stripe.updates.clear();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return batch;
+    }
+
+    private void requeue(List<MemberUpdate> batch) {
+        for (MemberUpdate failed : batch) {
+            Stripe stripe = stripeOf(failed.getMemberId());
+            stripe.lock.lock();
+            try {
+                MemberUpdate newer = stripe.updates.get(failed.getMemberId());
+                if (newer != null) {
+                    stripe.updates.put(failed.getMemberId(), failed.merge(newer));
+                    capacity.release(); // 같은 member가 두 자리를 차지하지 않도록
+                } else {
+                    stripe.updates.put(failed.getMemberId(), failed);
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private void flushAsync() {
+        if (!flushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            scheduler.execute(() -> {
+                flushQueued.set(false);
+                flushQuietly();
+            });
+        } catch (RejectedExecutionException e) {
+            flushQueued.set(false); // 종료 중
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("member write-behind flush failed. pending={}", pending(), e);
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("member write-behind buffer is closed");
+        }
+    }
+
+    private Stripe stripeOf(Long memberId) {
+        return stripes[Math.floorMod(Long.hashCode(memberId) * 0x9E3779B9, stripes.length)];
+    }
+
+    // 새 변경을 막고 남은 변경을 반영, 실패하면 남은 변경은 유실되므로 로그를 남김
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closed = true;
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("member write-behind flush failed on shutdown. lost={}", pending(), e);
+            throw e;
+        }
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Long, MemberUpdate> updates = new HashMap<>();
+    }
+
+}
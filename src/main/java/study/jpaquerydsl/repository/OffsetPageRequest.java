@@ -0,0 +1,95 @@
+package study.jpaquerydsl.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 페이지 번호 대신 offset을 그대로 유지하는 Pageable
+ * PageRequest는 offset = page * size라서 size를 줄이면 offset이 페이지 경계로 내려감 (MemberQueryCostGuard)
+ * getPageNumber()는 offset / size (offset이 size의 배수가 아니면 내림)
+ */
+public final class OffsetPageRequest implements Pageable, Serializable {
+
+    private final long offset;
+    private final int size;
+    private final Sort sort;
+
+    public OffsetPageRequest(long offset, int size, Sort sort) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be less than zero");
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must not be less than one");
+        }
+        this.offset = offset;
+        this.size = size;
+        this.sort = sort;
+    }
+
+    @Override
+    public int getPageNumber() {
+        return (int) (offset / size);
+    }
+
+    @Override
+    public int getPageSize() {
+        return size;
+    }
+
+    @Override
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public Sort getSort() {
+        return sort;
+    }
+
+    @Override
+    public Pageable next() {
+        return new OffsetPageRequest(offset + size, size, sort);
+    }
+
+    @Override
+    public Pageable previousOrFirst() {
+        return hasPrevious() ? new OffsetPageRequest(Math.max(0, offset - size), size, sort) : this;
+    }
+
+    @Override
+    public Pageable first() {
+        return new OffsetPageRequest(0, size, sort);
+    }
+
+    @Override
+    public Pageable withPage(int pageNumber) {
+        return new OffsetPageRequest((long) pageNumber * size, size, sort);
+    }
+
+    @Override
+    public boolean hasPrevious() {
+        return offset > 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof OffsetPageRequest other
+                && offset == other.offset
+                && size == other.size
+                && sort.equals(other.sort);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(offset, size, sort);
+    }
+
+    @Override
+    public String toString() {
+        return "OffsetPageRequest [offset: " + offset + ", size " + size + ", sort: " + sort + "]";
+    }
+
+}
@@ -0,0 +1,14 @@
+package study.jpaquerydsl.repository;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+/**
+ * 요청이 취소된 뒤(클라이언트 연결 끊김) 쿼리를 실행하려는 경우 (QueryDeadline)
+ */
+public class QueryCancelledException extends TransientDataAccessResourceException {
+
+    public QueryCancelledException() {
+        super("query cancelled");
+    }
+
+}
@@ -0,0 +1,13 @@
+package study.jpaquerydsl.repository;
+
+/**
+ * 검색 조건으로 예상되는 결과 행 수가 엔드포인트 한도를 넘는 경우 (MemberQueryCostGuard)
+ */
+public class QueryCostExceededException extends IllegalArgumentException {
+
+    public QueryCostExceededException(long estimatedRows, long maxRows) {
+        super("검색 조건이 너무 넓습니다: 예상 " + estimatedRows + "건 (최대 " + maxRows + "건)."
+                + " username, teamName, 나이 범위로 조건을 좁히거나 /v2/members 페이징을 사용하세요.");
+    }
+
+}
@@ -0,0 +1,127 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 요청 단위 쿼리 마감 시간 + 취소 (스레드 로컬)
+ * - 남은 시간을 JDBC setQueryTimeout으로 넘겨서 DB에서 중단되게 함
+ *   JPA는 jakarta.persistence.query.timeout 힌트, querydsl-sql은 QueryDeadlineListener
+ * - cancel()은 실행 중인 쿼리를 Statement.cancel()로 중단하고 이후 쿼리는 실행하지 않음 (클라이언트 연결 끊김)
+ * 요청을 다른 스레드에서 처리하면(Callable) attach()로 같은 마감 시간을 넘겨줌
+ */
+@Slf4j
+public final class QueryDeadline {
+
+    public static final String TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+
+    private static final ThreadLocal<QueryDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadline;
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();                    // 실행 중인 querydsl-sql 쿼리
+    private final Set<SharedSessionContractImplementor> sessions = ConcurrentHashMap.newKeySet(); // JPA 쿼리를 실행한 세션
+    private volatile boolean cancelled;
+
+    private QueryDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    public static QueryDeadline start(Duration budget) {
+        QueryDeadline queryDeadline = new QueryDeadline(System.nanoTime() + budget.toNanos());
+        CURRENT.set(queryDeadline);
+        return queryDeadline;
+    }
+
+    public static QueryDeadline current() {
+        return CURRENT.get();
+    }
+
+    public static void attach(QueryDeadline queryDeadline) {
+        CURRENT.set(queryDeadline);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 마감 시간이 있으면 남은 시간을 타임아웃으로 설정, 이미 지났거나 취소됐으면 실행하지 않고 예외
+     * 취소할 수 있도록 쿼리를 실행할 세션(트랜잭션에 묶인 세션)을 기록
+     */
+    public static <T> JPAQuery<T> apply(JPAQuery<T> query, EntityManager em) {
+        QueryDeadline queryDeadline = CURRENT.get();
+        if (queryDeadline == null) {
+            return query;
+        }
+        int seconds = queryDeadline.remainingSeconds();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            queryDeadline.sessions.add(em.unwrap(SharedSessionContractImplementor.class));
+        }
+        return query.setHint(TIMEOUT_HINT, seconds * 1000);
+    }
+
+    // querydsl-sql: prepare 직후 타임아웃 설정, 실행이 끝날 때까지 취소 대상
+    static void apply(Statement statement) throws SQLException {
+        QueryDeadline queryDeadline = CURRENT.get();
+        if (queryDeadline != null) {
+            statement.setQueryTimeout(queryDeadline.remainingSeconds());
+            queryDeadline.statements.add(statement);
+        }
+    }
+
+    static void release(Statement statement) {
+        QueryDeadline queryDeadline = CURRENT.get();
+        if (queryDeadline != null) {
+            queryDeadline.statements.remove(statement);
+        }
+    }
+
+    /**
+     * 다른 스레드(연결 끊김 처리)에서 호출, 실행 중인 쿼리를 DB에서 중단
+     * JPA는 세션이 마지막으로 실행한 쿼리를 취소 (이미 끝났으면 아무 일 없음)
+     */
+    public void cancel() {
+        cancelled = true;
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                log.debug("query cancel failed", e);
+            }
+        }
+        for (SharedSessionContractImplementor session : sessions) {
+            try {
+                session.getJdbcCoordinator().cancelLastQuery();
+            } catch (RuntimeException e) {
+                log.debug("query cancel failed", e);
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // JDBC 타임아웃은 초 단위라서 올림
+    private int remainingSeconds() {
+        if (cancelled) {
+            throw new QueryCancelledException();
+        }
+        long remainingNanos = deadline - System.nanoTime();
+        if (remainingNanos <= 0) {
+            throw new QueryTimeoutException("query deadline exceeded");
+        }
+        return (int) ((remainingNanos + 999_999_999L) / 1_000_000_000L);
+    }
+
+}
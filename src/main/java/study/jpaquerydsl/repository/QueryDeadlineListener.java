@@ -0,0 +1,43 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLListenerContext;
+import org.springframework.dao.InvalidDataAccessResourceUsageException;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * SQLQueryFactory 쿼리에 요청 마감 시간(QueryDeadline) 적용
+ * prepare 직후 남은 시간을 setQueryTimeout으로 설정하고 실행이 끝날 때까지 QueryDeadline.cancel() 대상으로 등록
+ */
+public class QueryDeadlineListener extends SQLBaseListener {
+
+    @Override
+    public void prepared(SQLListenerContext context) {
+        for (PreparedStatement statement : statements(context)) {
+            try {
+                QueryDeadline.apply(statement);
+            } catch (SQLException e) {
+                throw new InvalidDataAccessResourceUsageException("query timeout not applied", e);
+            }
+        }
+    }
+
+    @Override
+    public void end(SQLListenerContext context) {
+        statements(context).forEach(QueryDeadline::release);
+    }
+
+    private Collection<PreparedStatement> statements(SQLListenerContext context) {
+        Collection<PreparedStatement> statements = context.getPreparedStatements(); // batch
+        if (statements != null && !statements.isEmpty()) {
+            return statements;
+        }
+        PreparedStatement statement = context.getPreparedStatement();
+        return statement == null ? List.of() : List.of(statement);
+    }
+
+}
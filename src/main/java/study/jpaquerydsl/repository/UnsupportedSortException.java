@@ -0,0 +1,19 @@
+package study.jpaquerydsl.repository;
+
+import java.util.Collection;
+
+/**
+ * 인덱스로 정렬할 수 없는 속성, 조합으로 정렬을 요청한 경우
+ */
+public class UnsupportedSortException extends IllegalArgumentException {
+
+    public UnsupportedSortException(String property, Collection<String> sortable) {
+        super("정렬할 수 없는 속성입니다: " + property + " (가능: " + String.join(", ", sortable) + ")");
+    }
+
+    // 속성은 가능하지만 조합이 인덱스 하나로 정렬되지 않는 경우
+    public UnsupportedSortException(String sort) {
+        super("정렬할 수 없는 조합입니다: " + sort + " (속성 하나 + 같은 방향의 memberId만 가능)");
+    }
+
+}
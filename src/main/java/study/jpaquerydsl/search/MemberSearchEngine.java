@@ -0,0 +1,233 @@
+package study.jpaquerydsl.search;
+
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Projections;
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.listener.MemberDataChangedEvent;
+import study.jpaquerydsl.repository.MemberRepository;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static study.jpaquerydsl.entity.QMember.member;
+import static study.jpaquerydsl.entity.QTeam.team;
+
+/**
+ * MemberSearchCondition 검색을 메모리 인덱스(MemberSearchIndex)로 처리
+ * 인덱스가 없을 때(기동 직후, 벌크 변경 후 재적재 중)는 DB로 조회
+ * member.search-engine.enabled=true 일 때만 등록 (꺼져 있으면 적재 스레드, 변경 리스너 없음)
+ * 회원, 팀 단건 변경은 해당 행만 다시 읽어서 인덱스에 덧씌움 (다른 노드의 변경도 id가 오면 같음, 전체 재적재는 벌크 변경일 때만)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "member.search-engine.enabled", havingValue = "true")
+public class MemberSearchEngine {
+
+    private final JPAQueryFactory queryFactory;
+    private final MemberRepository memberRepository;
+
+    private static final int MAX_IN_SIZE = 1000;
+    private static final int MIN_COMPACT_THRESHOLD = 1024;
+
+    private final Executor loader; // 적재, 변경 반영은 모두 이 스레드 하나에서
+
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicBoolean reloadQueued = new AtomicBoolean(); // 연속된 변경은 재적재 한 번으로 합침
+    private final AtomicBoolean applyQueued = new AtomicBoolean();
+    private final Queue<MemberDataChangedEvent> pendingChanges = new ConcurrentLinkedQueue<>();
+    private volatile MemberSearchIndex index;
+
+    @Autowired
+    public MemberSearchEngine(JPAQueryFactory queryFactory,
+                              MemberRepository memberRepository) {
+        this(queryFactory, memberRepository, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "member-search-engine-loader");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // 테스트에서 호출 스레드(테스트 트랜잭션)로 적재, 반영하도록 executor 지정
+    MemberSearchEngine(JPAQueryFactory queryFactory, MemberRepository memberRepository, Executor loader) {
+        this.queryFactory = queryFactory;
+        this.memberRepository = memberRepository;
+        this.loader = loader;
+    }
+
+    public boolean isLoaded() {
+        return index != null;
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        MemberSearchIndex current = index;
+        if (current == null || condition.isIncludeArchived()) { // 인덱스에는 member_archive가 없음
+            return memberRepository.search(condition);
+        }
+        List<MemberTeamDto> result = new ArrayList<>();
+        current.search(condition, 0, Integer.MAX_VALUE, result);
+        return result;
+    }
+
+    // member_id 순으로 페이징, 정렬 조건이 있거나 member_archive도 조회하면 DB로 조회
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        MemberSearchIndex current = index;
+        if (current == null || pageable.getSort().isSorted() || condition.isIncludeArchived()) {
+            return memberRepository.searchPage(condition, pageable);
+        }
+        List<MemberTeamDto> content = new ArrayList<>(pageable.getPageSize());
+        int total = current.search(condition, pageable.getOffset(), pageable.getPageSize(), content);
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        reloadAsync();
+    }
+
+    /**
+     * 단건 변경은 모아서 해당 회원, 팀만 다시 읽어서 반영 (반영 전까지는 이전 값으로 응답)
+     * 대상을 알 수 없는 변경(이 노드나 다른 노드의 벌크)은 재적재가 끝날 때까지 DB로 조회
+     */
+    @EventListener(MemberDataChangedEvent.class)
+    public void onChanged(MemberDataChangedEvent event) {
+        if (event.getEntityType() == null) {
+            synchronized (this) {
+                generation.incrementAndGet();
+                index = null;
+            }
+            reloadAsync();
+            return;
+        }
+        pendingChanges.add(event);
+        if (applyQueued.compareAndSet(false, true)) {
+            loader.execute(() -> {
+                applyQueued.set(false);
+                try {
+                    applyPending();
+                } catch (RuntimeException e) {
+                    log.warn("member search index update failed", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * 쌓인 단건 변경을 한 번에 반영
+     * 인덱스가 없으면(적재 중) 그대로 두고 적재가 끝난 뒤 반영 (다시 읽으므로 여러 번 반영해도 같음)
+     */
+    synchronized void applyPending() {
+        MemberSearchIndex current = index;
+        if (current == null || pendingChanges.isEmpty()) {
+            return;
+        }
+        Set<Long> memberIds = new HashSet<>();
+        Set<Long> teamIds = new HashSet<>();
+        for (MemberDataChangedEvent event = pendingChanges.poll(); event != null; event = pendingChanges.poll()) {
+            if (event.getEntityType() == Member.class) {
+                memberIds.add((Long) event.getId());
+            } else if (event.getEntityType() == Team.class) {
+                teamIds.add((Long) event.getId());
+            }
+        }
+
+        Map<Long, MemberTeamDto> memberChanges = new HashMap<>();
+        memberIds.forEach(id -> memberChanges.put(id, null)); // 다시 읽어서 없으면 삭제
+        for (List<Long> chunk : chunks(memberIds)) {
+            for (MemberTeamDto row : select().where(member.id.in(chunk)).fetch()) {
+                memberChanges.put(row.getMemberId(), row);
+            }
+        }
+        Map<Long, String> teamChanges = new HashMap<>();
+        teamIds.forEach(id -> teamChanges.put(id, null));
+        for (List<Long> chunk : chunks(teamIds)) {
+            for (Tuple row : queryFactory.select(team.id, team.name).from(team).where(team.id.in(chunk)).fetch()) {
+                teamChanges.put(row.get(team.id), row.get(team.name));
+            }
+        }
+
+        index = current.apply(memberChanges, teamChanges, Math.max(MIN_COMPACT_THRESHOLD, current.size() / 20));
+    }
+
+    /**
+     * 현재 트랜잭션에서 보이는 데이터로 인덱스를 다시 만듦
+     * 적재 중에 다른 변경(onChanged)이나 재적재가 시작되면 이번 결과는 버림
+     */
+    public void reload() {
+        long started = generation.incrementAndGet();
+        pendingChanges.clear(); // 커밋 후 발행된 변경이라 이번 적재에 이미 포함됨
+        MemberSearchIndex loaded = MemberSearchIndex.of(select().fetch());
+
+        synchronized (this) {
+            if (generation.get() == started) {
+                index = loaded;
+                log.info("member search index loaded. size={}", loaded.size());
+                applyPending(); // 적재 중에 들어온 단건 변경
+            }
+        }
+    }
+
+    private JPAQuery<MemberTeamDto> select() {
+        return queryFactory
+                .select(Projections.constructor(
+                        MemberTeamDto.class,
+                        member.id,
+                        member.username,
+                        member.age,
+                        team.id.as("teamId"),
+                        team.name.as("teamName")
+                ))
+                .from(member)
+                .leftJoin(member.team, team);
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += MAX_IN_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + MAX_IN_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    private void reloadAsync() {
+        if (!reloadQueued.compareAndSet(false, true)) {
+            return;
+        }
+        loader.execute(() -> {
+            reloadQueued.set(false);
+            try {
+                reload();
+            } catch (RuntimeException e) {
+                log.warn("member search index load failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void close() {
+        if (loader instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,359 @@
+package study.jpaquerydsl.search;
+
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+
+import java.util.*;
+
+import static io.micrometer.common.util.StringUtils.isEmpty;
+
+/**
+ * member left join team 스냅샷을 컬럼별 배열로 들고 있는 불변 인덱스
+ * 위치(position)는 member_id 오름차순이고 모든 postings는 위치 오름차순
+ * 적재 후 변경은 apply()로 덧씌움 (바뀐 회원은 changes, 팀 이름 변경/삭제는 renamedTeams/deletedTeams)
+ * 덧씌운 변경이 많아지면 메모리에서 다시 만듦 (DB 조회 없음)
+ */
+final class MemberSearchIndex {
+
+    private static final int[] EMPTY = new int[0];
+    private static final long NO_TEAM = -1L;
+
+    // 컬럼
+    private final long[] memberIds;
+    private final String[] usernames;
+    private final int[] ages;
+    private final long[] teamIds;
+    private final String[] teamNames;
+
+    // 인덱스
+    private final int[] positionsByAge; // 나이 순으로 정렬한 위치
+    private final int[] sortedAges;     // positionsByAge 순서의 나이 (이진 탐색용)
+    private final Map<String, int[]> positionsByUsername;
+    private final Map<Long, int[]> positionsByTeamId;
+    private final Map<String, long[]> teamIdsByName;
+
+    // 적재 후 변경
+    private final NavigableMap<Long, MemberTeamDto> changes; // member_id -> 현재 행, null이면 삭제
+    private final Map<Long, String> renamedTeams;
+    private final Set<Long> deletedTeams;
+
+    private MemberSearchIndex(long[] memberIds, String[] usernames, int[] ages, long[] teamIds, String[] teamNames) {
+        this.memberIds = memberIds;
+        this.usernames = usernames;
+        this.ages = ages;
+        this.teamIds = teamIds;
+        this.teamNames = teamNames;
+
+        int size = memberIds.length;
+        long[] ageKeys = new long[size]; // 상위 32비트 나이, 하위 32비트 위치
+        for (int i = 0; i < size; i++) {
+            ageKeys[i] = ((long) ages[i] << 32) | i;
+        }
+        Arrays.sort(ageKeys);
+        this.positionsByAge = new int[size];
+        this.sortedAges = new int[size];
+        for (int i = 0; i < size; i++) {
+            positionsByAge[i] = (int) ageKeys[i];
+            sortedAges[i] = (int) (ageKeys[i] >> 32);
+        }
+
+        Map<String, IntList> usernamePostings = new HashMap<>();
+        Map<Long, IntList> teamPostings = new HashMap<>();
+        Map<String, Set<Long>> teamIdsByNameBuilder = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (usernames[i] != null) {
+                usernamePostings.computeIfAbsent(usernames[i], key -> new IntList()).add(i);
+            }
+            if (teamIds[i] != NO_TEAM) {
+                teamPostings.computeIfAbsent(teamIds[i], key -> new IntList()).add(i);
+                if (teamNames[i] != null) {
+                    teamIdsByNameBuilder.computeIfAbsent(teamNames[i], key -> new TreeSet<>()).add(teamIds[i]);
+                }
+            }
+        }
+        this.positionsByUsername = toArrays(usernamePostings);
+        this.positionsByTeamId = toArrays(teamPostings);
+        this.teamIdsByName = new HashMap<>();
+        teamIdsByNameBuilder.forEach((name, ids) ->
+                teamIdsByName.put(name, ids.stream().mapToLong(Long::longValue).toArray()));
+
+        this.changes = Collections.emptyNavigableMap();
+        this.renamedTeams = Map.of();
+        this.deletedTeams = Set.of();
+    }
+
+    // 배열, 인덱스는 공유하고 변경만 교체
+    private MemberSearchIndex(MemberSearchIndex base, NavigableMap<Long, MemberTeamDto> changes,
+                              Map<Long, String> renamedTeams, Set<Long> deletedTeams) {
+        this.memberIds = base.memberIds;
+        this.usernames = base.usernames;
+        this.ages = base.ages;
+        this.teamIds = base.teamIds;
+        this.teamNames = base.teamNames;
+        this.positionsByAge = base.positionsByAge;
+        this.sortedAges = base.sortedAges;
+        this.positionsByUsername = base.positionsByUsername;
+        this.positionsByTeamId = base.positionsByTeamId;
+        this.teamIdsByName = base.teamIdsByName;
+        this.changes = changes;
+        this.renamedTeams = renamedTeams;
+        this.deletedTeams = deletedTeams;
+    }
+
+    static MemberSearchIndex of(List<MemberTeamDto> rows) {
+        List<MemberTeamDto> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(MemberTeamDto::getMemberId));
+
+        int size = sorted.size();
+        long[] memberIds = new long[size];
+        String[] usernames = new String[size];
+        int[] ages = new int[size];
+        long[] teamIds = new long[size];
+        String[] teamNames = new String[size];
+        for (int i = 0; i < size; i++) {
+            MemberTeamDto row = sorted.get(i);
+            memberIds[i] = row.getMemberId();
+            usernames[i] = row.getUsername();
+            ages[i] = row.getAge();
+            teamIds[i] = row.getTeamId() == null ? NO_TEAM : row.getTeamId();
+            teamNames[i] = row.getTeamName();
+        }
+        return new MemberSearchIndex(memberIds, usernames, ages, teamIds, teamNames);
+    }
+
+    int size() {
+        return memberIds.length;
+    }
+
+    int changeCount() {
+        return changes.size() + renamedTeams.size() + deletedTeams.size();
+    }
+
+    /**
+     * 회원 변경(member_id -> 현재 행, null이면 삭제)과 팀 변경(team_id -> 현재 이름, null이면 삭제)을 덧씌운 새 인덱스
+     * 변경이 compactThreshold를 넘으면 배열, 인덱스를 다시 만듦
+     */
+    MemberSearchIndex apply(Map<Long, MemberTeamDto> memberChanges, Map<Long, String> teamChanges, int compactThreshold) {
+        NavigableMap<Long, MemberTeamDto> nextChanges = new TreeMap<>(changes);
+        nextChanges.putAll(memberChanges);
+        Map<Long, String> nextRenamed = new HashMap<>(renamedTeams);
+        Set<Long> nextDeleted = new HashSet<>(deletedTeams);
+        teamChanges.forEach((teamId, name) -> {
+            if (name == null) {
+                nextRenamed.remove(teamId);
+                nextDeleted.add(teamId);
+            } else {
+                nextRenamed.put(teamId, name);
+                nextDeleted.remove(teamId);
+            }
+        });
+        MemberSearchIndex next = new MemberSearchIndex(this, nextChanges, nextRenamed, nextDeleted);
+        return next.changeCount() > compactThreshold ? of(next.rows()) : next;
+    }
+
+    // 변경을 반영한 전체 행
+    List<MemberTeamDto> rows() {
+        List<MemberTeamDto> rows = new ArrayList<>(memberIds.length + changes.size());
+        for (int position = 0; position < memberIds.length; position++) {
+            if (!changes.containsKey(memberIds[position])) {
+                rows.add(toDto(position));
+            }
+        }
+        for (MemberTeamDto changed : changes.values()) {
+            if (changed != null) {
+                rows.add(withCurrentTeam(changed));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 조건에 맞는 행을 member_id 순으로 offset부터 limit개까지 result에 담고 전체 건수를 반환
+     * 적재 시점의 행과 바뀐 행(changes)을 member_id 순으로 합침
+     */
+    int search(MemberSearchCondition condition, long offset, int limit, List<MemberTeamDto> result) {
+        int[] candidates = candidates(condition);
+        Iterator<MemberTeamDto> changed = changes.values().iterator();
+        MemberTeamDto nextChanged = nextMatch(changed, condition);
+        int total = 0;
+        int candidateCount = candidates == null ? size() : candidates.length;
+        for (int i = 0; i < candidateCount; i++) {
+            int position = candidates == null ? i : candidates[i];
+            if (changes.containsKey(memberIds[position]) || !matches(position, condition)) {
+                continue;
+            }
+            while (nextChanged != null && nextChanged.getMemberId() < memberIds[position]) {
+                if (total >= offset && result.size() < limit) {
+                    result.add(nextChanged);
+                }
+                total++;
+                nextChanged = nextMatch(changed, condition);
+            }
+            if (total >= offset && result.size() < limit) {
+                result.add(toDto(position));
+            }
+            total++;
+        }
+        while (nextChanged != null) {
+            if (total >= offset && result.size() < limit) {
+                result.add(nextChanged);
+            }
+            total++;
+            nextChanged = nextMatch(changed, condition);
+        }
+        return total;
+    }
+
+    private MemberTeamDto nextMatch(Iterator<MemberTeamDto> changed, MemberSearchCondition condition) {
+        while (changed.hasNext()) {
+            MemberTeamDto row = changed.next();
+            if (row == null) {
+                continue; // 삭제
+            }
+            MemberTeamDto current = withCurrentTeam(row);
+            if (matches(current.getUsername(), current.getTeamName(), current.getAge(), condition)) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    // 가장 선택도가 높은 인덱스로 후보를 좁힘, null이면 전체 스캔
+    private int[] candidates(MemberSearchCondition condition) {
+        int[] best = null;
+        if (!isEmpty(condition.getUsername())) {
+            best = positionsByUsername.getOrDefault(condition.getUsername(), EMPTY);
+        }
+        if (!isEmpty(condition.getTeamName()) && (best == null || best.length > 0)) {
+            int[] postings = teamPostings(condition.getTeamName());
+            if (best == null || postings.length < best.length) {
+                best = postings;
+            }
+        }
+        if ((condition.getAgeGoe() != null || condition.getAgeLoe() != null) && (best == null || best.length > 0)) {
+            int from = condition.getAgeGoe() == null ? 0 : lowerBound(condition.getAgeGoe());
+            int to = condition.getAgeLoe() == null ? size() : lowerBound(condition.getAgeLoe() + 1L);
+            if (to <= from) {
+                return EMPTY;
+            }
+            if (best == null || to - from < best.length) {
+                best = Arrays.copyOfRange(positionsByAge, from, to);
+                Arrays.sort(best); // member_id 순서로 되돌림
+            }
+        }
+        return best;
+    }
+
+    // 적재 시점에 이 이름이었던 팀 + 이 이름으로 바뀐 팀 (이름이 바뀌어 나간 팀은 matches에서 제외)
+    private int[] teamPostings(String teamName) {
+        Set<Long> ids = new TreeSet<>();
+        long[] loaded = teamIdsByName.get(teamName);
+        if (loaded != null) {
+            for (long id : loaded) {
+                ids.add(id);
+            }
+        }
+        renamedTeams.forEach((teamId, name) -> {
+            if (name.equals(teamName)) {
+                ids.add(teamId);
+            }
+        });
+        if (ids.size() == 1) {
+            return positionsByTeamId.getOrDefault(ids.iterator().next(), EMPTY);
+        }
+        IntList merged = new IntList();
+        for (long id : ids) {
+            for (int position : positionsByTeamId.getOrDefault(id, EMPTY)) {
+                merged.add(position);
+            }
+        }
+        int[] postings = merged.toArray();
+        Arrays.sort(postings);
+        return postings;
+    }
+
+    private boolean matches(int position, MemberSearchCondition condition) {
+        return matches(usernames[position], teamName(position), ages[position], condition);
+    }
+
+    private boolean matches(String username, String teamName, int age, MemberSearchCondition condition) {
+        if (!isEmpty(condition.getUsername()) && !condition.getUsername().equals(username)) {
+            return false;
+        }
+        if (!isEmpty(condition.getTeamName()) && !condition.getTeamName().equals(teamName)) {
+            return false;
+        }
+        if (condition.getAgeGoe() != null && age < condition.getAgeGoe()) {
+            return false;
+        }
+        return condition.getAgeLoe() == null || age <= condition.getAgeLoe();
+    }
+
+    // 팀이 삭제되면 left join 결과처럼 팀 id, 이름 모두 null
+    private boolean teamDeleted(long teamId) {
+        return teamId == NO_TEAM || deletedTeams.contains(teamId);
+    }
+
+    private String teamName(int position) {
+        return teamDeleted(teamIds[position]) ? null : renamedTeams.getOrDefault(teamIds[position], teamNames[position]);
+    }
+
+    private MemberTeamDto withCurrentTeam(MemberTeamDto row) {
+        Long teamId = row.getTeamId();
+        if (teamId == null || (!deletedTeams.contains(teamId) && !renamedTeams.containsKey(teamId))) {
+            return row;
+        }
+        boolean deleted = deletedTeams.contains(teamId);
+        return new MemberTeamDto(row.getMemberId(), row.getUsername(), row.getAge(),
+                deleted ? null : teamId,
+                deleted ? null : renamedTeams.get(teamId));
+    }
+
+    // age 이상인 첫 위치
+    private int lowerBound(long age) {
+        int low = 0;
+        int high = sortedAges.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedAges[mid] < age) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private MemberTeamDto toDto(int position) {
+        return new MemberTeamDto(
+                memberIds[position],
+                usernames[position],
+                ages[position],
+                teamDeleted(teamIds[position]) ? null : teamIds[position],
+                teamName(position)
+        );
+    }
+
+    private static <K> Map<K, int[]> toArrays(Map<K, IntList> postings) {
+        Map<K, int[]> result = new HashMap<>(postings.size() * 2);
+        postings.forEach((key, list) -> result.put(key, list.toArray()));
+        return result;
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+}
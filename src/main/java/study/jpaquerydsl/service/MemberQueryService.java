@@ -0,0 +1,69 @@
+package study.jpaquerydsl.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberField;
+import study.jpaquerydsl.dto.MemberFieldsDto;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.repository.MemberBatchLoader;
+import study.jpaquerydsl.repository.MemberJpaRepository;
+import study.jpaquerydsl.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 회원 검색 (읽기 전용 트랜잭션)
+ * open-in-view를 끄고 커넥션은 이 메서드 안에서만 사용 (content + count 쿼리가 한 커넥션, 한 영속성 컨텍스트)
+ * 엔티티가 아닌 DTO만 반환하므로 응답 직렬화 중에 지연 로딩이 일어나지 않음
+ */
+@Service
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class MemberQueryService {
+
+    private final MemberJpaRepository memberJpaRepository;
+    private final MemberRepository memberRepository;
+    private final MemberBatchLoader memberBatchLoader; // 요청 범위 프록시
+
+    /**
+     * id 목록 조회, 요청 순서대로 반환하고 없는 id는 제외
+     * member는 in 쿼리 한 번, team은 default_batch_fetch_size로 묶어서 조회
+     */
+    public List<MemberTeamDto> findAll(List<Long> ids) {
+        Map<Long, Member> found = memberBatchLoader.findAll(ids);
+        List<MemberTeamDto> result = new ArrayList<>(found.size());
+        for (Member foundMember : found.values()) {
+            Team foundTeam = foundMember.getTeam();
+            result.add(new MemberTeamDto(foundMember.getId(), foundMember.getUsername(), foundMember.getAge(),
+                    foundTeam == null ? null : foundTeam.getId(),
+                    foundTeam == null ? null : foundTeam.getName()));
+        }
+        return result;
+    }
+
+    public List<MemberTeamDto> search(MemberSearchCondition condition) {
+        return memberJpaRepository.search(condition);
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        return memberRepository.searchPage(condition, pageable);
+    }
+
+    public List<MemberFieldsDto> search(MemberSearchCondition condition, Set<MemberField> fields) {
+        return memberRepository.search(condition, fields);
+    }
+
+    public Page<MemberFieldsDto> searchPage(MemberSearchCondition condition, Set<MemberField> fields, Pageable pageable) {
+        return memberRepository.searchPage(condition, fields, pageable);
+    }
+
+}
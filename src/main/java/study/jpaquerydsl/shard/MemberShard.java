@@ -0,0 +1,71 @@
+package study.jpaquerydsl.shard;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.SQLTemplates;
+import com.querydsl.sql.SQLTemplatesRegistry;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import com.querydsl.sql.spring.SpringExceptionTranslator;
+import lombok.Getter;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+/**
+ * 샤드 하나 (DataSource + 샤드 전용 트랜잭션 + querydsl-sql)
+ * 쿼리는 read(), write() 안에서만 실행 (SpringConnectionProvider는 트랜잭션 커넥션만 사용)
+ */
+public class MemberShard implements AutoCloseable {
+
+    @Getter
+    private final int index;
+    private final DataSource dataSource;
+    private final SQLQueryFactory queryFactory;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public MemberShard(int index, DataSource dataSource) throws SQLException {
+        this.index = index;
+        this.dataSource = dataSource;
+
+        SQLTemplates templates;
+        try (Connection connection = dataSource.getConnection()) {
+            templates = new SQLTemplatesRegistry().getTemplates(connection.getMetaData());
+        }
+        Configuration configuration = new Configuration(templates);
+        configuration.setExceptionTranslator(new SpringExceptionTranslator());
+        this.queryFactory = new SQLQueryFactory(configuration, new SpringConnectionProvider(dataSource));
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    // db/shard-schema.sql (create table if not exists)
+    public void initSchema() {
+        new ResourceDatabasePopulator(new ClassPathResource("db/shard-schema.sql")).execute(dataSource);
+    }
+
+    public <T> T read(Function<SQLQueryFactory, T> callback) {
+        return readTransaction.execute(status -> callback.apply(queryFactory));
+    }
+
+    public <T> T write(Function<SQLQueryFactory, T> callback) {
+        return writeTransaction.execute(status -> callback.apply(queryFactory));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) { // HikariDataSource
+            closeable.close();
+        }
+    }
+
+}
@@ -0,0 +1,344 @@
+package study.jpaquerydsl.shard;
+
+import com.querydsl.core.types.ConstructorExpression;
+import com.querydsl.core.types.OrderSpecifier;
+import com.querydsl.core.types.Projections;
+import com.querydsl.sql.SQLQueryFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.repository.MemberSortKey;
+import study.jpaquerydsl.repository.MemberSqlConditions;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.micrometer.common.util.StringUtils.isEmpty;
+import static study.jpaquerydsl.entity.sql.SIdSequence.idSequence;
+import static study.jpaquerydsl.entity.sql.SMember.member;
+import static study.jpaquerydsl.entity.sql.STeam.team;
+
+/**
+ * team_id 기준으로 member, team을 여러 DB(MemberShard)에 나눠 저장하고 조회
+ * - 샤드 = team_id % 샤드 수 (팀이 없는 member는 0번 샤드), 같은 팀의 member와 team은 항상 같은 샤드
+ * - 팀은 이름의 hash로 샤드를 정함, 같은 이름의 팀은 모두 같은 샤드
+ *   teamName 조건이 있으면 그 샤드에만 조회 (어느 노드가 만든 팀이든 계산만으로 찾음)
+ * - 그 외에는 모든 샤드에 병렬로 offset + size개까지 조회한 뒤 정렬 순서대로 k-way merge
+ * - id = 샤드의 id_sequence 값 * 샤드 수 + 샤드 번호
+ *   id_sequence에서 idBlockSize개씩 구간을 예약해서 쓰므로 노드가 여러 개여도 겹치지 않음 (hi/lo)
+ * 이전 방식(team_id 순번으로 샤드 배치)으로 저장된 팀은 이름 hash 샤드로 옮겨야 teamName 조회에 나옴
+ * 문자열 정렬은 merge 시 String.compareTo 기준이라 대소문자를 구분하지 않는 collation과는 샤드 간 순서가 다를 수 있음
+ */
+public class ShardedMemberRepository implements AutoCloseable {
+
+    private static final ConstructorExpression<MemberTeamDto> PROJECTION = Projections.constructor(
+            MemberTeamDto.class,
+            member.memberId,
+            member.username,
+            member.age,
+            team.teamId,
+            team.name
+    );
+
+    private static final String TEAM_SEQUENCE = "team";
+    private static final String MEMBER_SEQUENCE = "member";
+    private static final int DEFAULT_ID_BLOCK_SIZE = 100;
+
+    private final List<MemberShard> shards;
+    private final ExecutorService executor;
+    private final int idBlockSize;
+    private final Map<String, IdBlock> idBlocks = new ConcurrentHashMap<>(); // 샤드 번호 + 시퀀스 이름 -> 예약한 구간
+
+    public ShardedMemberRepository(List<MemberShard> shards, int threads) {
+        this(shards, threads, DEFAULT_ID_BLOCK_SIZE);
+    }
+
+    public ShardedMemberRepository(List<MemberShard> shards, int threads, int idBlockSize) {
+        this.shards = List.copyOf(shards);
+        this.idBlockSize = idBlockSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "member-shard-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        initSequences();
+    }
+
+    /**
+     * 샤드마다 id_sequence 행이 없으면 만듦 (여러 노드가 동시에 기동하면 먼저 insert한 쪽 값 사용)
+     * 시작 값은 이미 저장된 id와 겹치지 않도록
+     * - team: 샤드의 team_id는 모두 샤드 번호와 나머지가 같으므로 샤드 안의 최대값 기준
+     * - member: 예전에는 샤드와 상관없이 순번으로 발급했으므로 전체 샤드의 최대값 기준
+     */
+    private void initSequences() {
+        long maxMemberId = 0;
+        for (MemberShard shard : shards) {
+            Long max = shard.read(query -> query.select(member.memberId.max()).from(member).fetchOne());
+            maxMemberId = Math.max(maxMemberId, max == null ? 0 : max);
+        }
+        for (MemberShard shard : shards) {
+            Long maxTeamId = shard.read(query -> query.select(team.teamId.max()).from(team).fetchOne());
+            createSequence(shard, TEAM_SEQUENCE, (maxTeamId == null ? 0 : maxTeamId) / shards.size() + 1);
+            createSequence(shard, MEMBER_SEQUENCE, maxMemberId / shards.size() + 1);
+        }
+    }
+
+    private void createSequence(MemberShard shard, String name, long initialValue) {
+        try {
+            shard.write(query -> {
+                boolean exists = query.select(idSequence.name).from(idSequence).where(idSequence.name.eq(name)).fetchFirst() != null;
+                if (!exists) {
+                    query.insert(idSequence)
+                            .set(idSequence.name, name)
+                            .set(idSequence.nextValue, initialValue)
+                            .execute();
+                }
+                return null;
+            });
+        } catch (DuplicateKeyException e) {
+            // 다른 노드가 먼저 만듦
+        }
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(Long teamId) {
+        return teamId == null ? 0 : Math.floorMod(teamId, shards.size());
+    }
+
+    // 팀 이름 -> 샤드 번호 (String.hashCode는 JVM과 상관없이 같은 값)
+    public int shardOf(String teamName) {
+        return teamName == null ? 0 : Math.floorMod(teamName.hashCode(), shards.size());
+    }
+
+    public Long saveTeam(String name) {
+        MemberShard shard = shards.get(shardOf(name));
+        long teamId = nextId(shard, TEAM_SEQUENCE);
+        shard.write(query -> query.insert(team)
+                .set(team.teamId, teamId)
+                .set(team.name, name)
+                .set(team.memberCount, 0)
+                .execute());
+        return teamId;
+    }
+
+    // 팀을 옮기는 경우(샤드 간 이동)는 지원하지 않음
+    public Long saveMember(String username, int age, Long teamId) {
+        MemberShard shard = shards.get(shardOf(teamId));
+        long memberId = nextId(shard, MEMBER_SEQUENCE);
+        shard.write(query -> {
+            query.insert(member)
+                    .set(member.memberId, memberId)
+                    .set(member.username, username)
+                    .set(member.age, age)
+                    .set(member.teamId, teamId)
+                    .execute();
+            if (teamId != null) {
+                query.update(team)
+                        .set(team.memberCount, team.memberCount.add(1))
+                        .where(team.teamId.eq(teamId))
+                        .execute();
+            }
+            return null;
+        });
+        return memberId;
+    }
+
+    public Page<MemberTeamDto> searchPage(MemberSearchCondition condition, Pageable pageable) {
+        Ordering ordering = ordering(pageable.getSort());
+        List<MemberShard> targets = targets(condition);
+        if (targets.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, 0);
+        }
+        if (targets.size() == 1) {
+            ShardResult result = search(targets.get(0), condition, ordering, pageable.getOffset(), pageable.getPageSize());
+            return new PageImpl<>(result.content(), pageable, result.total());
+        }
+
+        // 어느 샤드의 행이 페이지에 들어갈지 모르므로 샤드마다 앞에서부터 offset + size개
+        long limit = pageable.getOffset() + pageable.getPageSize();
+        List<CompletableFuture<ShardResult>> futures = new ArrayList<>();
+        for (MemberShard shard : targets.subList(1, targets.size())) {
+            futures.add(CompletableFuture.supplyAsync(() -> search(shard, condition, ordering, 0, limit), executor));
+        }
+        List<ShardResult> results = new ArrayList<>();
+        results.add(search(targets.get(0), condition, ordering, 0, limit)); // 첫 샤드는 호출 스레드에서
+        for (CompletableFuture<ShardResult> future : futures) {
+            results.add(join(future));
+        }
+
+        long total = results.stream().mapToLong(ShardResult::total).sum();
+        return new PageImpl<>(merge(results, ordering.comparator(), pageable.getOffset(), pageable.getPageSize()), pageable, total);
+    }
+
+    private List<MemberShard> targets(MemberSearchCondition condition) {
+        if (isEmpty(condition.getTeamName())) {
+            return shards;
+        }
+        return List.of(shards.get(shardOf(condition.getTeamName())));
+    }
+
+    private long nextId(MemberShard shard, String sequence) {
+        long value = idBlocks.computeIfAbsent(shard.getIndex() + ":" + sequence, key -> new IdBlock(shard, sequence)).next();
+        return value * shards.size() + shard.getIndex();
+    }
+
+    private ShardResult search(MemberShard shard, MemberSearchCondition condition, Ordering ordering, long offset, long limit) {
+        return shard.read(query -> {
+            List<MemberTeamDto> content = query
+                    .select(PROJECTION)
+                    .from(member)
+                    .leftJoin(team).on(team.teamId.eq(member.teamId))
+                    .where(MemberSqlConditions.of(condition))
+                    .orderBy(ordering.orders())
+                    .offset(offset)
+                    .limit(limit)
+                    .fetch();
+
+            // 마지막 페이지면 count 쿼리 생략 (PageableExecutionUtils와 같은 기준)
+            boolean lastPage = offset == 0 ? content.size() < limit : !content.isEmpty() && content.size() < limit;
+            long total = lastPage ? offset + content.size() : count(query, condition);
+            return new ShardResult(content, total);
+        });
+    }
+
+    private long count(SQLQueryFactory query, MemberSearchCondition condition) {
+        Long count = query
+                .select(member.count())
+                .from(member)
+                .leftJoin(team).on(team.teamId.eq(member.teamId))
+                .where(MemberSqlConditions.of(condition))
+                .fetchOne();
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * 샤드별로 정렬된 결과를 힙으로 합쳐서 offset만큼 건너뛰고 size개
+     */
+    private static List<MemberTeamDto> merge(List<ShardResult> results, Comparator<MemberTeamDto> comparator, long offset, int size) {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> comparator.compare(a.peek(), b.peek()));
+        for (ShardResult result : results) {
+            if (!result.content().isEmpty()) {
+                heads.add(new Cursor(result.content()));
+            }
+        }
+
+        List<MemberTeamDto> page = new ArrayList<>(size);
+        long skipped = 0;
+        while (!heads.isEmpty() && page.size() < size) {
+            Cursor head = heads.poll();
+            MemberTeamDto row = head.next();
+            if (skipped < offset) {
+                skipped++;
+            } else {
+                page.add(row);
+            }
+            if (head.hasNext()) {
+                heads.add(head);
+            }
+        }
+        return page;
+    }
+
+    // Sort -> SQL 정렬 + 같은 순서의 Comparator (MemberSortKey, 마지막에 id를 붙여서 순서 고정)
+    private static Ordering ordering(Sort sort) {
+        List<MemberSortKey.Order> orders = MemberSortKey.orders(sort, MemberSortKey::sql);
+        Comparator<MemberTeamDto> comparator = orders.get(0).comparator();
+        for (MemberSortKey.Order order : orders.subList(1, orders.size())) {
+            comparator = comparator.thenComparing(order.comparator());
+        }
+        return new Ordering(orders.stream()
+                .map(order -> order.specifier(MemberSortKey::sql))
+                .toArray(OrderSpecifier<?>[]::new), comparator);
+    }
+
+    private static ShardResult join(CompletableFuture<ShardResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        executor.shutdownNow();
+        for (MemberShard shard : shards) {
+            shard.close();
+        }
+    }
+
+    private record ShardResult(List<MemberTeamDto> content, long total) {
+    }
+
+    private record Ordering(OrderSpecifier<?>[] orders, Comparator<MemberTeamDto> comparator) {
+    }
+
+    /**
+     * id_sequence 행 하나에서 예약한 [next, end) 구간
+     * 다 쓰면 next_value를 idBlockSize만큼 올려서 다음 구간 예약 (행 락으로 노드 간 구간이 겹치지 않음)
+     */
+    private final class IdBlock {
+
+        private final MemberShard shard;
+        private final String sequence;
+        private long next;
+        private long end;
+
+        private IdBlock(MemberShard shard, String sequence) {
+            this.shard = shard;
+            this.sequence = sequence;
+        }
+
+        private synchronized long next() {
+            if (next == end) {
+                end = shard.write(query -> {
+                    query.update(idSequence)
+                            .set(idSequence.nextValue, idSequence.nextValue.add(idBlockSize))
+                            .where(idSequence.name.eq(sequence))
+                            .execute();
+                    return query.select(idSequence.nextValue).from(idSequence).where(idSequence.name.eq(sequence)).fetchOne();
+                });
+                next = end - idBlockSize;
+            }
+            return next++;
+        }
+
+    }
+
+    private static final class Cursor {
+
+        private final List<MemberTeamDto> rows;
+        private int position;
+
+        private Cursor(List<MemberTeamDto> rows) {
+            this.rows = rows;
+        }
+
+        private MemberTeamDto peek() {
+            return rows.get(position);
+        }
+
+        private MemberTeamDto next() {
+            return rows.get(position++);
+        }
+
+        private boolean hasNext() {
+            return position < rows.size();
+        }
+
+    }
+
+}
@@ -0,0 +1,45 @@
+package study.jpaquerydsl.shard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * member.sharding.enabled=true 일 때 샤드 DB마다 커넥션 풀을 만들어 ShardedMemberRepository 등록
+ * 샤드 DataSource는 빈으로 등록하지 않음 (기본 DataSource 자동 설정, JPA와 섞이지 않도록)
+ */
+@Configuration
+@ConditionalOnProperty(name = "member.sharding.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardedMemberRepository shardedMemberRepository(@Value("${member.sharding.urls}") List<String> urls,
+                                                           @Value("${member.sharding.username}") String username,
+                                                           @Value("${member.sharding.password}") String password,
+                                                           @Value("${member.sharding.init-schema:true}") boolean initSchema,
+                                                           @Value("${member.sharding.threads:16}") int threads,
+                                                           @Value("${member.sharding.id-block-size:100}") int idBlockSize) throws SQLException {
+        List<MemberShard> shards = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            DataSource dataSource = DataSourceBuilder.create()
+                    .url(urls.get(i))
+                    .username(username)
+                    .password(password)
+                    .build();
+            MemberShard shard = new MemberShard(i, dataSource);
+            if (initSchema) {
+                shard.initSchema();
+            }
+            shards.add(shard);
+        }
+        return new ShardedMemberRepository(shards, threads, idBlockSize);
+    }
+
+}
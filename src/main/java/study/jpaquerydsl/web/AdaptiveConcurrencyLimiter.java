@@ -0,0 +1,111 @@
+package study.jpaquerydsl.web;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 지연 시간 기울기(gradient)로 동시 실행 한도를 조절하는 limiter
+ * 최근 지연이 장기 평균보다 커지면 한도를 줄이고, 여유가 있으면 sqrt(limit)만큼 늘림
+ * 한도를 넘은 요청은 maxWait 동안만 대기하고 이후에는 바로 거절
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double TOLERANCE = 2.0;   // 장기 평균의 2배까지는 정상으로 봄
+    private static final double SMOOTHING = 0.2;
+    private static final int LONG_WINDOW = 600;    // 장기 평균 지연에 반영되는 샘플 수
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private final AtomicLong rejected = new AtomicLong();
+
+    private double limit;
+    private int inflight;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long maxWait, TimeUnit unit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+    }
+
+    /**
+     * 한도 안이면 true, maxWait 동안 자리가 나지 않으면 false
+     */
+    public boolean acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = maxWaitNanos;
+            while (inflight >= (int) limit) {
+                if (remaining <= 0) {
+                    rejected.incrementAndGet();
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            inflight++;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(long rttNanos) {
+        lock.lock();
+        try {
+            boolean appLimited = inflight < limit / 2; // 한도의 절반도 안 쓰고 있으면 늘릴 근거가 없음
+            inflight--;
+            update(rttNanos, appLimited);
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(long rttNanos, boolean appLimited) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            return;
+        }
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95; // 부하가 빠진 뒤 장기 평균이 너무 높게 남아있지 않도록
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / rttNanos));
+        double newLimit = limit * gradient + (appLimited ? 0 : Math.sqrt(limit));
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInflight() {
+        lock.lock();
+        try {
+            return inflight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejected() {
+        return rejected.get();
+    }
+
+}
@@ -0,0 +1,45 @@
+package study.jpaquerydsl.web;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 검색 API 앞단에서 AdaptiveConcurrencyLimiter 적용, 한도 초과 시 503
+ * 비동기 요청(Callable)은 처음 dispatch에서 획득하고 결과를 쓰는 비동기 dispatch가 끝날 때 반납
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String STARTED_AT = ConcurrencyLimitInterceptor.class.getName() + ".startedAt";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (!limiter.acquire()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return false;
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object startedAt = request.getAttribute(STARTED_AT);
+        if (startedAt != null) {
+            request.removeAttribute(STARTED_AT);
+            limiter.release(System.nanoTime() - (long) startedAt);
+        }
+    }
+
+}
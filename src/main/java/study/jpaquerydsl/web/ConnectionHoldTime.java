@@ -0,0 +1,47 @@
+package study.jpaquerydsl.web;
+
+/**
+ * 요청 단위 JDBC 커넥션 점유 시간 합계 (스레드 로컬)
+ * ConnectionHoldTimeDataSource가 커넥션을 반납할 때 더하고 ConnectionHoldTimeFilter가 요청이 끝나면 기록
+ * 비동기 요청(Callable)은 request 속성(ATTRIBUTE)의 같은 배열을 작업 스레드에 attach
+ */
+public final class ConnectionHoldTime {
+
+    public static final String ATTRIBUTE = ConnectionHoldTime.class.getName();
+
+    private static final ThreadLocal<long[]> HELD = new ThreadLocal<>(); // {점유 시간 합계(ns), 빌린 횟수}
+
+    private ConnectionHoldTime() {
+    }
+
+    public static long[] start() {
+        long[] held = new long[2];
+        HELD.set(held);
+        return held;
+    }
+
+    public static void attach(long[] held) {
+        if (held != null) {
+            HELD.set(held);
+        }
+    }
+
+    // 요청 밖(스케줄러, 배치 스레드)에서 빌린 커넥션은 무시
+    static void add(long nanos) {
+        long[] held = HELD.get();
+        if (held != null) {
+            held[0] += nanos;
+            held[1]++;
+        }
+    }
+
+    /**
+     * {점유 시간 합계(ns), 빌린 횟수}, start 없이 호출하면 {0, 0}
+     */
+    public static long[] stop() {
+        long[] held = HELD.get();
+        HELD.remove();
+        return held == null ? new long[2] : held;
+    }
+
+}
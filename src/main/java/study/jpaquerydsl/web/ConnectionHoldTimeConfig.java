@@ -0,0 +1,39 @@
+package study.jpaquerydsl.web;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * 요청별 커넥션 점유 시간 측정 (ConnectionHoldTimeFilter)
+ * 풀 전체 지표는 hikaricp.connections.active, pending, usage (스프링 부트 기본)
+ */
+@Configuration
+public class ConnectionHoldTimeConfig {
+
+    // JPA, JdbcTemplate, SQLQueryFactory가 모두 감싼 DataSource를 사용하도록 빈 초기화 직후 교체
+    @Bean
+    public static BeanPostProcessor connectionHoldTimeDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConnectionHoldTimeDataSource)) {
+                    return new ConnectionHoldTimeDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConnectionHoldTimeFilter> connectionHoldTimeFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ConnectionHoldTimeFilter> registration = new FilterRegistrationBean<>(new ConnectionHoldTimeFilter(meterRegistry));
+        registration.addUrlPatterns("/v1/members", "/v2/members", "/v3/members");
+        return registration;
+    }
+
+}
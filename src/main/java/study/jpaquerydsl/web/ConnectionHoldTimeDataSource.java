@@ -0,0 +1,56 @@
+package study.jpaquerydsl.web;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * 커넥션을 빌린 시점부터 close(풀 반납)까지의 시간을 ConnectionHoldTime에 더함
+ * unwrap, isWrapperFor는 원래 DataSource(HikariDataSource)로 위임
+ */
+public class ConnectionHoldTimeDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public ConnectionHoldTimeDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return track(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return track(super.getConnection(username, password));
+    }
+
+    // 빈 종료 시 원래 DataSource의 커넥션 풀 종료 (감싸면 destroy 메서드 추론이 이 클래스 기준)
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private Connection track(Connection target) {
+        long borrowedAt = System.nanoTime();
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && !closed[0]) { // 두 번 닫아도 한 번만 기록
+                        closed[0] = true;
+                        ConnectionHoldTime.add(System.nanoTime() - borrowedAt);
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+}
@@ -0,0 +1,64 @@
+package study.jpaquerydsl.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청마다 JDBC 커넥션 점유 시간 합계와 빌린 횟수를 uri 태그로 기록
+ * 응답 직렬화까지 감싸도록 필터로 처리 (open-in-view를 켜면 직렬화가 끝날 때까지 점유한 시간이 그대로 보임)
+ * - member.request.connection.hold: 요청 하나가 커넥션을 점유한 시간 합계
+ * - member.request.connection.count: 요청 하나가 커넥션을 빌린 횟수
+ */
+@RequiredArgsConstructor
+public class ConnectionHoldTimeFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    // Callable 검색 API는 비동기 dispatch가 끝날 때 기록
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            ConnectionHoldTime.attach((long[]) request.getAttribute(ConnectionHoldTime.ATTRIBUTE));
+        } else {
+            request.setAttribute(ConnectionHoldTime.ATTRIBUTE, ConnectionHoldTime.start());
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long[] held = ConnectionHoldTime.stop();
+            if (!request.isAsyncStarted()) {
+                record(request, held);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long[] held) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        Timer.builder("member.request.connection.hold")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(held[0], TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("member.request.connection.count")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(held[1]);
+    }
+
+}
@@ -0,0 +1,48 @@
+package study.jpaquerydsl.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import study.jpaquerydsl.MemberWarmUp;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * JVM 시작부터 첫 요청 처리 완료까지 걸린 시간 기록 (기동 최적화 비교용)
+ * MemberWarmUp이 보낸 요청(MemberWarmUp.HEADER)은 제외, 비동기 요청(Callable)은 결과를 쓴 뒤에 기록
+ */
+@Slf4j
+@Component
+public class FirstRequestTimer extends OncePerRequestFilter {
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return recorded.get() || request.getHeader(MemberWarmUp.HEADER) != null;
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (!request.isAsyncStarted() && recorded.compareAndSet(false, true)) {
+                log.info("time to first request = {}ms ({} {})",
+                        ManagementFactory.getRuntimeMXBean().getUptime(), request.getMethod(), request.getRequestURI());
+            }
+        }
+    }
+
+}
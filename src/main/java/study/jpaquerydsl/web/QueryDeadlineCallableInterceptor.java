@@ -0,0 +1,64 @@
+package study.jpaquerydsl.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import study.jpaquerydsl.repository.QueryDeadline;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 검색 API의 Callable 처리
+ * - 요청 스레드의 QueryDeadline, ConnectionHoldTime을 작업 스레드로 넘김
+ * - 클라이언트 연결이 끊기거나(AsyncListener.onError) 비동기 요청 시간이 초과되면 실행 중인 쿼리를 DB에서 취소
+ *   연결 끊김으로 취소한 횟수는 member.search.query.cancelled (마감 시간 초과는 member.search.query.timeout)
+ */
+@Slf4j
+public class QueryDeadlineCallableInterceptor implements CallableProcessingInterceptor {
+
+    private final Counter cancelled;
+
+    public QueryDeadlineCallableInterceptor(MeterRegistry meterRegistry) {
+        this.cancelled = Counter.builder("member.search.query.cancelled").register(meterRegistry);
+    }
+
+    @Override
+    public <T> void preProcess(NativeWebRequest request, Callable<T> task) {
+        QueryDeadline.attach(queryDeadline(request));
+        ConnectionHoldTime.attach((long[]) request.getAttribute(ConnectionHoldTime.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        QueryDeadline.clear();
+        ConnectionHoldTime.stop();
+    }
+
+    @Override
+    public <T> Object handleError(NativeWebRequest request, Callable<T> task, Throwable t) {
+        QueryDeadline queryDeadline = queryDeadline(request);
+        if (queryDeadline != null && !queryDeadline.isCancelled()) {
+            log.debug("client disconnected, cancelling queries", t);
+            queryDeadline.cancel();
+            cancelled.increment();
+        }
+        return RESULT_NONE;
+    }
+
+    @Override
+    public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+        QueryDeadline queryDeadline = queryDeadline(request);
+        if (queryDeadline != null) {
+            queryDeadline.cancel();
+        }
+        return RESULT_NONE;
+    }
+
+    private QueryDeadline queryDeadline(NativeWebRequest request) {
+        return (QueryDeadline) request.getAttribute(QueryDeadlineInterceptor.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+}
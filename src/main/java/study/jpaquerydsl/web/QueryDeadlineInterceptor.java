@@ -0,0 +1,42 @@
+package study.jpaquerydsl.web;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import study.jpaquerydsl.repository.QueryDeadline;
+
+import java.time.Duration;
+
+/**
+ * 요청이 들어온 시점부터 budget 안에 쿼리가 끝나도록 QueryDeadline 설정
+ * 비동기 처리(Callable)면 QueryDeadlineCallableInterceptor가 request 속성의 QueryDeadline을 작업 스레드로 넘김
+ */
+@RequiredArgsConstructor
+public class QueryDeadlineInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String ATTRIBUTE = QueryDeadline.class.getName();
+
+    private final Duration budget;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC) { // 비동기 결과 응답(dispatch)은 같은 요청
+            request.setAttribute(ATTRIBUTE, QueryDeadline.start(budget));
+        }
+        return true;
+    }
+
+    // 요청 스레드는 Callable을 넘기고 바로 반환됨 (afterCompletion은 비동기 dispatch 때 호출)
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        QueryDeadline.clear();
+    }
+
+}
@@ -0,0 +1,83 @@
+package study.jpaquerydsl.web;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final String[] SEARCH_PATHS = {"/v1/members", "/v2/members"};
+
+    private final MeterRegistry meterRegistry;
+    private final AdaptiveConcurrencyLimiter searchLimiter;
+    private final boolean concurrencyLimitEnabled;
+
+    @Value("${member.query-deadline.v1:3s}")
+    private Duration v1QueryBudget;
+
+    @Value("${member.query-deadline.v2:2s}")
+    private Duration v2QueryBudget;
+
+    @Value("${member.query-deadline.async-timeout:10s}")
+    private Duration asyncTimeout;
+
+    public WebConfig(MeterRegistry meterRegistry,
+                     @Value("${member.concurrency-limit.enabled:true}") boolean concurrencyLimitEnabled,
+                     @Value("${member.concurrency-limit.initial:20}") int initialLimit,
+                     @Value("${member.concurrency-limit.min:2}") int minLimit,
+                     @Value("${member.concurrency-limit.max:200}") int maxLimit,
+                     @Value("${member.concurrency-limit.max-wait-ms:50}") long maxWaitMillis) {
+        this.meterRegistry = meterRegistry;
+        this.concurrencyLimitEnabled = concurrencyLimitEnabled;
+        this.searchLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, maxWaitMillis, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("member.search.concurrency.limit", searchLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("member.search.concurrency.inflight", searchLimiter, AdaptiveConcurrencyLimiter::getInflight)
+                .register(meterRegistry);
+        FunctionCounter.builder("member.search.concurrency.rejected", searchLimiter, AdaptiveConcurrencyLimiter::getRejected)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (concurrencyLimitEnabled) {
+            registry.addInterceptor(new ConcurrencyLimitInterceptor(searchLimiter))
+                    .addPathPatterns(SEARCH_PATHS);
+        }
+        // ETag(MemberDataVersion)는 응답 형식과 무관하므로 JSON, Smile, CBOR 응답을 캐시에서 구분하도록
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if (request.getDispatcherType() != DispatcherType.ASYNC) {
+                    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                }
+                return true;
+            }
+        }).addPathPatterns(SEARCH_PATHS);
+        registry.addInterceptor(new QueryDeadlineInterceptor(v1QueryBudget)).addPathPatterns("/v1/members");
+        registry.addInterceptor(new QueryDeadlineInterceptor(v2QueryBudget)).addPathPatterns("/v2/members");
+    }
+
+    // 검색 API는 Callable로 처리해서 클라이언트 연결이 끊기면 실행 중인 쿼리를 취소 (작업 스레드는 applicationTaskExecutor)
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+        configurer.registerCallableInterceptors(new QueryDeadlineCallableInterceptor(meterRegistry));
+    }
+
+}
@@ -0,0 +1,27 @@
+-- 샤드 DB 스키마 (Member, Team 엔티티 매핑과 같은 컬럼)
+-- id는 ShardedMemberRepository가 샤드 전체에서 겹치지 않게 발급하므로 auto_increment 없음
+-- (샤드마다 id_sequence에서 구간을 예약하고 id = 값 * 샤드 수 + 샤드 번호)
+create table if not exists team (
+    team_id bigint not null,
+    name varchar(255),
+    member_count integer default 0 not null,
+    primary key (team_id),
+    index idx_team_name (name)
+);
+
+create table if not exists member (
+    member_id bigint not null,
+    username varchar(255),
+    age integer not null,
+    team_id bigint,
+    primary key (member_id),
+    index idx_member_team_id (team_id),
+    index idx_member_username (username),
+    index idx_member_age (age)
+);
+
+create table if not exists id_sequence (
+    name varchar(64) not null,
+    next_value bigint not null,
+    primary key (name)
+);
@@ -0,0 +1,39 @@
+package study.jpaquerydsl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import study.jpaquerydsl.dto.MemberDto;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.dto.UserDto;
+import study.jpaquerydsl.entity.QMember;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberRuntimeHintsTest {
+
+    @Test
+    @DisplayName("Projections, Q클래스 리플렉션 힌트 등록")
+    public void registerHints() throws Exception {
+        RuntimeHints hints = new RuntimeHints();
+        new MemberRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        // Projections.constructor
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onConstructor(MemberTeamDto.class.getConstructor(Long.class, String.class, int.class, Long.class, String.class)))
+                .accepts(hints);
+        // Projections.bean
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(UserDto.class, "setName")).accepts(hints);
+        // Projections.fields
+        assertThat(RuntimeHintsPredicates.reflection().onType(MemberDto.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(QMember.class)).accepts(hints);
+        // ConnectionHoldTimeDataSource
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class)).accepts(hints);
+    }
+
+}
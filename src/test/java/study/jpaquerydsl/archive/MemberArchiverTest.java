@@ -0,0 +1,108 @@
+package study.jpaquerydsl.archive;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.MemberArchive;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.repository.MemberJpaRepository;
+import study.jpaquerydsl.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "member.archive.enabled=true",
+        "member.archive.keep-recent=5",
+        "member.archive.batch-size=3",
+        "member.archive.interval-ms=3600000"
+})
+@Transactional
+class MemberArchiverTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberArchiver memberArchiver;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    List<Long> memberIds = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 12; i++) {
+            Member member = new Member("member" + i, i * 10, i % 2 == 0 ? teamA : teamB);
+            em.persist(member);
+            memberIds.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("최근 keepRecent명만 남기고 배치로 member_archive에 이동")
+    public void archive() throws Exception {
+        assertThat(memberArchiver.archive()).isEqualTo(7);
+        assertThat(memberArchiver.archive()).isZero();
+
+        List<MemberTeamDto> hot = memberJpaRepository.search(new MemberSearchCondition());
+        assertThat(hot).extracting("memberId").containsExactlyInAnyOrderElementsOf(memberIds.subList(7, 12));
+
+        MemberArchive archived = em.find(MemberArchive.class, memberIds.get(0));
+        assertThat(archived.getUsername()).isEqualTo("member0");
+        assertThat(archived.getArchivedAt()).isNotNull();
+        assertThat(em.find(Member.class, memberIds.get(0))).isNull();
+    }
+
+    @Test
+    @DisplayName("includeArchived면 이동 전과 같은 검색 결과")
+    public void includeArchived() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(20);
+        condition.setIncludeArchived(true);
+        PageRequest pageable = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "age"));
+
+        List<MemberTeamDto> before = memberJpaRepository.search(condition);
+        Page<MemberTeamDto> beforePage = memberRepository.searchPage(condition, pageable);
+
+        memberArchiver.archive();
+
+        assertThat(memberJpaRepository.search(condition))
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyInAnyOrderElementsOf(before);
+        Page<MemberTeamDto> afterPage = memberRepository.searchPage(condition, pageable);
+        assertThat(afterPage.getTotalElements()).isEqualTo(beforePage.getTotalElements());
+        assertThat(afterPage.getContent())
+                .usingRecursiveFieldByFieldElementComparator()
+                .containsExactlyElementsOf(beforePage.getContent());
+
+        condition.setIncludeArchived(false);
+        assertThat(memberRepository.search(condition)).extracting("username")
+                .containsExactlyInAnyOrder("member8", "member10");
+    }
+
+}
@@ -0,0 +1,146 @@
+package study.jpaquerydsl.archive;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 파티션 DDL은 암묵적으로 커밋되므로 트랜잭션 없이 실행하고 끝나면 정리
+ */
+@SpringBootTest(properties = {
+        "member.partition.enabled=true",
+        "member.partition.size=10000",
+        "member.partition.headroom=1",
+        "member.partition.check-interval-ms=3600000",
+        "member.archive.enabled=true",
+        "member.archive.keep-recent=10000",
+        "member.archive.batch-size=5000",
+        "member.archive.interval-ms=3600000"
+})
+class MemberPartitionTest {
+
+    private static final int MEMBERS = 100_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberPartitionManager memberPartitionManager;
+
+    @Autowired
+    MemberArchiver memberArchiver;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.execute("alter table member remove partitioning");
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from member_archive");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @Test
+    @DisplayName("id 범위 파티션, 아카이브 후 파티션 제거, includeArchived 검색")
+    public void partitionAndArchive() throws Exception {
+        seed();
+        memberPartitionManager.ensurePartitions();
+        assertThat(memberPartitionManager.partitions()).hasSize(MEMBERS / 10_000 + 3); // 최대 id까지의 범위 + headroom + pmax
+
+        // 외래 키는 파티션할 때 drop, team_id 인덱스는 유지
+        assertThat(jdbcTemplate.queryForList("show index from member where key_name = 'idx_member_team_id'")).isNotEmpty();
+
+        // member_id 조건은 해당 파티션만 읽음
+        assertThat(explain("select * from member where member_id between 20001 and 20100").get("partitions"))
+                .isEqualTo("p30000");
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(24);
+        int foundBefore = memberRepository.search(condition).size();
+
+        assertThat(memberArchiver.archive()).isEqualTo(MEMBERS - 10_000);
+
+        assertThat(memberPartitionManager.partitions()).noneMatch(partition -> partition.name().equals("p10000"));
+        assertThat(memberRepository.search(condition)).hasSizeLessThan(foundBefore);
+        condition.setIncludeArchived(true);
+        assertThat(memberRepository.search(condition)).hasSize(foundBefore);
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("아카이브 전후 스캔 행 수와 검색 시간")
+    public void scanRowsAndLatency() throws Exception {
+        seed();
+        memberPartitionManager.ensurePartitions();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(24);
+        String search = "select m.member_id from member m left join team t on t.team_id = m.team_id where m.age between 20 and 24";
+
+        long rowsBefore = scannedRows(search);
+        long latencyBefore = latency(condition);
+
+        memberArchiver.archive();
+        jdbcTemplate.execute("analyze table member");
+
+        long rowsAfter = scannedRows(search);
+        long latencyAfter = latency(condition);
+        System.out.println("scan rows " + rowsBefore + " -> " + rowsAfter + ", search " + latencyBefore + " us -> " + latencyAfter + " us");
+        System.out.println("partitions " + memberPartitionManager.partitions());
+    }
+
+    private void seed() {
+        List<Object[]> teams = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            teams.add(new Object[]{(long) i, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name, member_count) values (?, ?, 0)", teams);
+
+        List<Object[]> members = new ArrayList<>();
+        for (int i = 1; i <= MEMBERS; i++) {
+            members.add(new Object[]{(long) i, "member" + i, i % 100, (long) (i % 100) + 1});
+        }
+        jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", members);
+        jdbcTemplate.execute("analyze table member");
+    }
+
+    private Map<String, Object> explain(String sql) {
+        return jdbcTemplate.queryForList("explain " + sql).get(0);
+    }
+
+    // EXPLAIN의 member 테이블 예상 스캔 행 수
+    private long scannedRows(String sql) {
+        return jdbcTemplate.queryForList("explain " + sql).stream()
+                .filter(row -> "m".equals(row.get("table")))
+                .mapToLong(row -> ((Number) row.get("rows")).longValue())
+                .sum();
+    }
+
+    // 평균 검색 시간(us), 워밍업 제외
+    private long latency(MemberSearchCondition condition) {
+        for (int i = 0; i < 5; i++) {
+            memberRepository.search(condition);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < 20; i++) {
+            memberRepository.search(condition);
+        }
+        return (System.nanoTime() - start) / 20 / 1000;
+    }
+
+}
@@ -0,0 +1,208 @@
+package study.jpaquerydsl.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.jpaquerydsl.JpaQuerydslApplication;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.listener.MemberDataChangedEvent;
+import study.jpaquerydsl.repository.MemberJpaRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class MemberNearCacheTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberNearCacheTest.class);
+
+    @Test
+    @DisplayName("다른 노드에서 팀 이름을 바꾸면 이 노드의 캐시된 검색 결과도 갱신")
+    public void remoteInvalidation() throws Exception {
+        String cluster = "near-cache-" + UUID.randomUUID();
+        try (ConfigurableApplicationContext nodeA = start(cluster, "update");
+             ConfigurableApplicationContext nodeB = start(cluster, "none")) {
+            String username = "near-" + UUID.randomUUID();
+            Long[] ids = new Long[2];
+            inTransaction(nodeA, em -> {
+                Team team = new Team("nearTeamA");
+                em.persist(team);
+                Member member = new Member(username, 10, team);
+                em.persist(member);
+                ids[0] = team.getId();
+                ids[1] = member.getId();
+            });
+
+            try {
+                MemberNearCache cacheB = nodeB.getBean(MemberNearCache.class);
+                MemberJpaRepository repositoryB = nodeB.getBean(MemberJpaRepository.class);
+                MemberSearchCondition condition = new MemberSearchCondition();
+                condition.setUsername(username);
+                AtomicInteger loads = new AtomicInteger();
+
+                assertThat(searchTeamName(cacheB, repositoryB, condition, loads)).isEqualTo("nearTeamA");
+                assertThat(searchTeamName(cacheB, repositoryB, condition, loads)).isEqualTo("nearTeamA");
+                assertThat(loads.get()).isEqualTo(1); // 두 번째는 캐시
+
+                inTransaction(nodeA, em -> em.find(Team.class, ids[0]).setName("nearTeamB"));
+
+                // ttl은 1시간이라 무효화 메시지로만 갱신됨
+                long start = System.nanoTime();
+                String teamName = searchTeamName(cacheB, repositoryB, condition, loads);
+                while (!"nearTeamB".equals(teamName) && System.nanoTime() - start < Duration.ofSeconds(2).toNanos()) {
+                    Thread.sleep(5);
+                    teamName = searchTeamName(cacheB, repositoryB, condition, loads);
+                }
+                long elapsedMs = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                log.info("remote invalidation visible after {}ms", elapsedMs);
+
+                assertThat(teamName).isEqualTo("nearTeamB");
+                assertThat(nodeB.getBean(MeterRegistry.class).counter("member.near-cache.invalidation", "source", "remote").count())
+                        .isGreaterThanOrEqualTo(1);
+            } finally {
+                inTransaction(nodeA, em -> {
+                    em.remove(em.find(Member.class, ids[1]));
+                    em.remove(em.find(Team.class, ids[0]));
+                });
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("이미 받은 버전, 자기 메시지는 무시")
+    public void duplicateMessage() throws Exception {
+        AtomicInteger remoteEvents = new AtomicInteger();
+        MemberNearCache cache = new MemberNearCache((InvalidationTransport) null, event -> {
+            if (event instanceof MemberDataChangedEvent changed && changed.isRemote()) {
+                remoteEvents.incrementAndGet();
+            }
+        }, new SimpleMeterRegistry(), true, Duration.ofHours(1), 100, Duration.ofMillis(50));
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("key", loads::incrementAndGet);
+        cache.onMessage(bulkMessage("other", 2));
+        cache.get("key", loads::incrementAndGet);
+        assertThat(loads.get()).isEqualTo(2);
+
+        cache.onMessage(bulkMessage("other", 2)); // 중복
+        cache.onMessage(bulkMessage("other", 1)); // 늦게 도착한 이전 버전
+        cache.onMessage(bulkMessage(cache.nodeId(), 3)); // 자기 메시지
+        cache.get("key", loads::incrementAndGet);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(remoteEvents.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("바뀐 id만 보내고 받은 쪽은 id마다 이벤트 발행, 벌크일 때만 id 없는 이벤트")
+    public void changedIds() throws Exception {
+        List<InvalidationMessage> sent = new ArrayList<>();
+        InvalidationTransport transport = new InvalidationTransport() {
+            @Override
+            public void send(InvalidationMessage message) {
+                sent.add(message);
+            }
+
+            @Override
+            public void subscribe(Consumer<InvalidationMessage> listener) {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        List<MemberDataChangedEvent> published = new ArrayList<>();
+        MemberNearCache cache = new MemberNearCache(transport, event -> published.add((MemberDataChangedEvent) event),
+                new SimpleMeterRegistry(), true, Duration.ofHours(1), 100, Duration.ofHours(1));
+        try {
+            cache.onChanged(new MemberDataChangedEvent(Member.class, 1L));
+            cache.onChanged(new MemberDataChangedEvent(Member.class, 1L));
+            cache.onChanged(new MemberDataChangedEvent(Team.class, 7L));
+            cache.sendPending();
+
+            assertThat(sent).hasSize(1);
+            InvalidationMessage message = sent.get(0);
+            assertThat(message.changes()).isEqualTo(3);
+            assertThat(message.memberIds()).containsExactly(1L);
+            assertThat(message.teamIds()).containsExactly(7L);
+            assertThat(message.bulk()).isFalse();
+
+            // id가 너무 많으면 벌크
+            LongStream.rangeClosed(1, InvalidationMessage.MAX_IDS + 1)
+                    .forEach(id -> cache.onChanged(new MemberDataChangedEvent(Member.class, id)));
+            cache.sendPending();
+            assertThat(sent.get(1).bulk()).isTrue();
+            assertThat(sent.get(1).memberIds()).isEmpty();
+
+            cache.onMessage(new InvalidationMessage("other", 1, 2, Set.of(1L, 2L), Set.of(7L), false));
+            assertThat(published).allMatch(MemberDataChangedEvent::isRemote);
+            assertThat(published).extracting(MemberDataChangedEvent::getEntityType, MemberDataChangedEvent::getId)
+                    .containsExactlyInAnyOrder(tuple(Member.class, 1L), tuple(Member.class, 2L), tuple(Team.class, 7L));
+
+            published.clear();
+            cache.onMessage(bulkMessage("other", 2));
+            assertThat(published).hasSize(1);
+            assertThat(published.get(0).getEntityType()).isNull();
+        } finally {
+            cache.close();
+        }
+    }
+
+    InvalidationMessage bulkMessage(String nodeId, long version) {
+        return new InvalidationMessage(nodeId, version, 1, Set.of(), Set.of(), true);
+    }
+
+    String searchTeamName(MemberNearCache cache, MemberJpaRepository repository, MemberSearchCondition condition, AtomicInteger loads) {
+        List<MemberTeamDto> result = cache.get(List.of("v1", condition), () -> {
+            loads.incrementAndGet();
+            return repository.search(condition);
+        });
+        assertThat(result).hasSize(1);
+        return result.get(0).getTeamName();
+    }
+
+    ConfigurableApplicationContext start(String cluster, String ddlAuto) {
+        return new SpringApplicationBuilder(JpaQuerydslApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.profiles.active=test",
+                        "spring.jpa.hibernate.ddl-auto=" + ddlAuto,
+                        "member.near-cache.enabled=true",
+                        "member.near-cache.transport=in-process",
+                        "member.near-cache.cluster=" + cluster,
+                        "member.near-cache.ttl=1h",
+                        "member.near-cache.batch-interval=20ms")
+                .run();
+    }
+
+    void inTransaction(ConfigurableApplicationContext context, Consumer<EntityManager> work) {
+        EntityManager em = context.getBean(EntityManagerFactory.class).createEntityManager();
+        try {
+            em.getTransaction().begin();
+            work.accept(em);
+            em.getTransaction().commit();
+        } finally {
+            em.close();
+        }
+    }
+
+}
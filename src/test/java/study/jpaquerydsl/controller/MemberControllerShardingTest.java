@@ -0,0 +1,60 @@
+package study.jpaquerydsl.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import study.jpaquerydsl.shard.ShardedMemberRepository;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * member.sharding.enabled=true 면 /v2/members는 샤드 DB(H2 내장 DB, MySQL 모드)에서 조회
+ */
+@SpringBootTest(properties = {
+        "member.sharding.enabled=true",
+        "member.sharding.urls=jdbc:h2:mem:controller-shard0;MODE=MySQL;DB_CLOSE_DELAY=-1,jdbc:h2:mem:controller-shard1;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "member.sharding.username=sa",
+        "member.sharding.password="
+})
+@AutoConfigureMockMvc
+class MemberControllerShardingTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ShardedMemberRepository shardedMemberRepository;
+
+    @Test
+    @DisplayName("샤드에 저장한 회원이 /v2 검색에 나오고 ETag는 붙지 않음")
+    public void searchPage() throws Exception {
+        String teamName = "shardTeam-" + UUID.randomUUID();
+        Long teamId = shardedMemberRepository.saveTeam(teamName);
+        for (int i = 0; i < 3; i++) {
+            shardedMemberRepository.saveMember("shardMember" + i, 20 + i, teamId);
+        }
+
+        MvcResult result = mockMvc.perform(get("/v2/members").param("teamName", teamName).param("sort", "age,desc"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(3))
+                .andExpect(jsonPath("$.content[0].username").value("shardMember2"))
+                .andExpect(jsonPath("$.content[0].teamId").value(teamId));
+        assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+}
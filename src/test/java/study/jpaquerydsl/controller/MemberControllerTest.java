@@ -0,0 +1,121 @@
+package study.jpaquerydsl.controller;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.listener.MemberDataVersion;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberDataVersion memberDataVersion;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 10; i++) {
+            em.persist(new Member("member" + i, i, teamA));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("ETag가 같으면 DB 조회 없이 304")
+    public void notModified() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v2/members").param("teamName", "teamA").param("size", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+        assertThat(mockMvc.perform(get("/v2/members").param("teamName", "teamA").param("size", "5"))
+                .andReturn().getResponse().getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        int polls = 100;
+        for (int i = 0; i < polls; i++) {
+            mockMvc.perform(get("/v2/members").param("teamName", "teamA").param("size", "5")
+                            .header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // 다른 조건은 다른 ETag
+        mockMvc.perform(get("/v2/members").param("teamName", "teamB").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(request().asyncStarted());
+
+        // 데이터가 바뀌면 다시 조회 (커밋 직전 증가 + 커밋 후 이벤트)
+        em.unwrap(Session.class).doWork(MemberDataVersion::increment);
+        memberDataVersion.onChanged();
+        result = mockMvc.perform(get("/v2/members").param("teamName", "teamA").param("size", "5")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("ids로 여러 회원 조회, 요청 순서대로 member in 쿼리 + team in 쿼리")
+    public void findMembers() throws Exception {
+        List<Long> ids = em.createQuery("select m.id from Member m order by m.id desc", Long.class)
+                .setMaxResults(5)
+                .getResultList();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        String body = mockMvc.perform(get("/v1/members")
+                        .param("ids", ids.stream().map(String::valueOf).collect(Collectors.joining(",")) + "," + ids.get(0) + ",-1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).contains("\"memberId\":" + ids.get(0), "\"teamName\":\"teamA\"");
+        assertThat(body.indexOf("\"memberId\":" + ids.get(0))).isLessThan(body.indexOf("\"memberId\":" + ids.get(4)));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        statistics.setStatisticsEnabled(false);
+    }
+
+}
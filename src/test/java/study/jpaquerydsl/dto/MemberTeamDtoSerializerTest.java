@@ -0,0 +1,86 @@
+package study.jpaquerydsl.dto;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberTeamDtoSerializerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberTeamDtoSerializerTest.class);
+
+    @Test
+    @DisplayName("기본 BeanSerializer와 같은 결과")
+    public void sameAsBeanSerializer() throws Exception {
+        ObjectMapper custom = new ObjectMapper();
+        ObjectMapper reflective = JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build();
+
+        List<MemberTeamDto> rows = List.of(
+                new MemberTeamDto(1L, "member1", 10, 1L, "teamA"),
+                new MemberTeamDto(2L, null, 20, null, null));
+
+        assertThat(custom.readTree(custom.writeValueAsBytes(rows)))
+                .isEqualTo(reflective.readTree(reflective.writeValueAsBytes(rows)));
+    }
+
+    // 시간은 기록만 하고 크기만 비교 (perfTest)
+    @Test
+    @Tag("perf")
+    @DisplayName("포맷별 크기, 직렬화 시간")
+    public void benchmark() throws Exception {
+        List<MemberTeamDto> rows = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            rows.add(new MemberTeamDto((long) i, "member" + i, i % 100, (long) (i % 10), "team" + (i % 10)));
+        }
+
+        int reflection = report("json(reflection)", JsonMapper.builder().disable(MapperFeature.USE_ANNOTATIONS).build(), rows);
+        int json = report("json", new ObjectMapper(), rows);
+        int smile = report("smile", new SmileMapper(), rows);
+        int cbor = report("cbor", new CBORMapper(), rows);
+
+        assertThat(json).isEqualTo(reflection);
+        assertThat(smile).isLessThan(json);
+        assertThat(cbor).isLessThan(json);
+    }
+
+    private int report(String format, ObjectMapper mapper, List<MemberTeamDto> rows) throws IOException {
+        for (int i = 0; i < 20; i++) { // warm-up
+            mapper.writeValueAsBytes(rows);
+        }
+        int iterations = 50;
+        long start = System.nanoTime();
+        byte[] bytes = null;
+        for (int i = 0; i < iterations; i++) {
+            bytes = mapper.writeValueAsBytes(rows);
+        }
+        long nanosPerRow = (System.nanoTime() - start) / ((long) iterations * rows.size());
+
+        log.info("{}: {} bytes, gzip {} bytes, {} ns/row", format, bytes.length, gzip(bytes), nanosPerRow);
+
+        assertThat(mapper.readTree(bytes).size()).isEqualTo(rows.size());
+        return bytes.length;
+    }
+
+    private int gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.size();
+    }
+
+}
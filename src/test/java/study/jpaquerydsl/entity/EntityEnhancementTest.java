@@ -0,0 +1,122 @@
+package study.jpaquerydsl.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.hibernate.proxy.HibernateProxy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 빌드 시 bytecode enhancement(build.gradle hibernate 블록)가 적용된 엔티티
+ */
+@SpringBootTest
+@Transactional
+class EntityEnhancementTest {
+
+    private static final int MEMBERS = 100_000;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("setter로 바꾼 속성만 추적, Member.team은 프록시 클래스 없이 지연 로딩")
+    public void enhanced() throws Exception {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member = new Member("member1", 10, teamA);
+        em.persist(member);
+        em.flush();
+        em.clear();
+
+        Member foundMember = em.find(Member.class, member.getId());
+        assertThat(foundMember).isInstanceOf(SelfDirtinessTracker.class);
+        assertThat(((SelfDirtinessTracker) foundMember).$$_hibernate_hasDirtyAttributes()).isFalse();
+
+        foundMember.setAge(20);
+        assertThat(((SelfDirtinessTracker) foundMember).$$_hibernate_getDirtyAttributes()).containsExactly("age");
+
+        assertThat(foundMember.getTeam()).isNotInstanceOf(HibernateProxy.class);
+        assertThat(Hibernate.isInitialized(foundMember.getTeam())).isFalse();
+        assertThat(foundMember.getTeam().getName()).isEqualTo("teamA");
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("회원 10만 명을 로딩한 트랜잭션의 flush 시간, 메모리")
+    public void flushBenchmark() throws Exception {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        em.flush();
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            rows.add(new Object[]{"member" + i, i % 100, teamA.getId()});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age, team_id) values (?, ?, ?)", rows);
+        em.clear();
+
+        long heapBefore = usedHeap();
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        long heapLoaded = usedHeap();
+
+        // 바뀐 엔티티가 없는 flush = dirty check 비용
+        long start = System.nanoTime();
+        em.flush();
+        long cleanFlush = System.nanoTime() - start;
+
+        // 10명 중 1명만 수정
+        for (int i = 0; i < members.size(); i += 10) {
+            members.get(i).setAge(members.get(i).getAge() + 1);
+        }
+        start = System.nanoTime();
+        em.flush();
+        long dirtyFlush = System.nanoTime() - start;
+
+        System.out.println("members=" + members.size()
+                + ", persistence context " + (heapLoaded - heapBefore) / 1024 / 1024 + " MB"
+                + ", flush(no change) " + cleanFlush / 1_000_000 + " ms"
+                + ", flush(" + members.size() / 10 + " changed) " + dirtyFlush / 1_000_000 + " ms");
+    }
+
+    @Test
+    @DisplayName("flush는 바뀐 엔티티만 update")
+    public void flushOnlyDirty() throws Exception {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 100; i++) {
+            em.persist(new Member("member" + i, i, teamA));
+        }
+        em.flush();
+        em.clear();
+
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+        for (int i = 0; i < members.size(); i += 10) {
+            members.get(i).setAge(members.get(i).getAge() + 1);
+        }
+        em.flush();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member where age = cast(substring(username, 7) as unsigned) + 1",
+                Long.class)).isEqualTo(10);
+    }
+
+    private long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
@@ -0,0 +1,149 @@
+package study.jpaquerydsl.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamMembershipTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("changeTeam은 팀 인원과 상관없이 같은 쿼리 수, 같은 영속성 컨텍스트 크기")
+    public void changeTeamCost() throws Exception {
+        Result small = changeTeam(10);
+        Result large = changeTeam(2000);
+
+        assertThat(large.statements).isEqualTo(small.statements);
+        assertThat(large.managedEntities).isEqualTo(small.managedEntities);
+    }
+
+    @Test
+    @DisplayName("팀을 옮기면 이전 팀과 새 팀의 memberCount 갱신")
+    public void memberCount() throws Exception {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member = new Member("member1", 10, teamA);
+        em.persist(member);
+        em.persist(new Member("member2", 20, teamA));
+        em.flush();
+        em.clear();
+
+        Member foundMember = em.find(Member.class, member.getId());
+        foundMember.changeTeam(em.find(Team.class, teamB.getId()));
+        em.flush();
+        em.clear();
+
+        assertThat(em.find(Team.class, teamA.getId()).getMemberCount()).isEqualTo(1);
+        Team foundTeamB = em.find(Team.class, teamB.getId());
+        assertThat(foundTeamB.getMemberCount()).isEqualTo(1);
+        assertThat(foundTeamB.getMembers()).extracting("username").containsExactly("member1");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("여러 트랜잭션이 동시에 같은 팀으로 옮겨도 member_count 누락 없음")
+    public void concurrentMemberCount() throws Exception {
+        int threads = 8;
+        Long teamId = transactionTemplate.execute(status -> {
+            Team team = new Team("concurrentTeam");
+            em.persist(team);
+            return team.getId();
+        });
+        List<Long> memberIds = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Member member = new Member("concurrent" + i);
+                em.persist(member);
+                ids.add(member.getId());
+            }
+            return ids;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (Long memberId : memberIds) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    transactionTemplate.executeWithoutResult(status ->
+                            em.find(Member.class, memberId).changeTeam(em.find(Team.class, teamId)));
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            assertThat(jdbcTemplate.queryForObject("select member_count from team where team_id = ?", Integer.class, teamId))
+                    .isEqualTo(threads);
+        } finally {
+            executor.shutdownNow();
+            memberIds.forEach(id -> jdbcTemplate.update("delete from member where member_id = ?", id));
+            jdbcTemplate.update("delete from team where team_id = ?", teamId);
+        }
+    }
+
+    private Result changeTeam(int teamSize) {
+        Team team = new Team("team" + teamSize);
+        em.persist(team);
+        for (int i = 0; i < teamSize; i++) {
+            em.persist(new Member("member" + i, i, team));
+        }
+        Member newMember = new Member("newMember");
+        em.persist(newMember);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        Team foundTeam = em.find(Team.class, team.getId());
+        em.find(Member.class, newMember.getId()).changeTeam(foundTeam);
+        em.flush();
+
+        assertThat(Hibernate.isInitialized(foundTeam.getMembers())).isFalse();
+        assertThat(foundTeam.getMemberCount()).isEqualTo(teamSize + 1);
+
+        Result result = new Result(statistics.getPrepareStatementCount(),
+                em.unwrap(Session.class).getStatistics().getEntityCount());
+        statistics.setStatisticsEnabled(false);
+        em.clear();
+        return result;
+    }
+
+    record Result(long statements, int managedEntities) {
+    }
+
+}
@@ -0,0 +1,126 @@
+package study.jpaquerydsl.exporter;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 파티션마다 별도 커넥션에서 조회하므로 데이터를 커밋하고 끝나면 정리
+ */
+@SpringBootTest
+class MemberCsvExporterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberCsvExporterTest.class);
+
+    private static final int MEMBERS = 100_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberCsvExporter memberCsvExporter;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    public void before() {
+        List<Object[]> teams = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            teams.add(new Object[]{(long) i, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name, member_count) values (?, ?, 0)", teams);
+
+        List<Object[]> members = new ArrayList<>();
+        for (int i = 1; i <= MEMBERS; i++) {
+            members.add(new Object[]{(long) i, i == 1 ? "member,\"1\"" : "member" + i, i % 100, i % 11 == 0 ? null : (long) (i % 10) + 1});
+        }
+        jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", members);
+    }
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @Test
+    @DisplayName("파티션 수와 상관없이 같은 결과 (member_id 순서)")
+    public void export() throws Exception {
+        String expected = null;
+        for (int partitions : new int[]{1, 2, 4, 8}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long rows = memberCsvExporter.export(new MemberSearchCondition(), partitions, out);
+
+            assertThat(rows).isEqualTo(MEMBERS);
+            String csv = out.toString(StandardCharsets.UTF_8);
+            if (expected == null) {
+                expected = csv;
+            }
+            assertThat(csv).isEqualTo(expected);
+        }
+
+        String[] lines = expected.split("\n");
+        assertThat(lines).hasSize(MEMBERS + 1);
+        assertThat(lines[0]).isEqualTo("memberId,username,age,teamId,teamName");
+        assertThat(lines[1]).isEqualTo("1,\"member,\"\"1\"\"\",1,2,team2");
+        assertThat(lines[11]).isEqualTo("11,member11,11,,");
+        assertThat(lines[MEMBERS]).startsWith(MEMBERS + ",");
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("파티션 수별 시간")
+    public void exportTime() throws Exception {
+        for (int partitions : new int[]{1, 2, 4, 8}) {
+            long start = System.nanoTime();
+            long rows = memberCsvExporter.export(new MemberSearchCondition(), partitions, OutputStream.nullOutputStream());
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            log.info("partitions={}: {} rows, {} ms", partitions, rows, millis);
+
+            assertThat(rows).isEqualTo(MEMBERS);
+        }
+    }
+
+    @Test
+    @DisplayName("조건 + 파티션별 파일")
+    public void exportToFiles() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("team1");
+        condition.setAgeGoe(50);
+
+        List<Path> files = memberCsvExporter.exportToFiles(condition, 4, dir);
+
+        assertThat(files).hasSize(4);
+        long rows = 0;
+        for (Path file : files) {
+            List<String> lines = Files.readAllLines(file);
+            assertThat(lines.get(0)).isEqualTo("memberId,username,age,teamId,teamName");
+            assertThat(lines.subList(1, lines.size())).allMatch(line -> line.endsWith(",1,team1"));
+            rows += lines.size() - 1;
+        }
+        assertThat(rows).isEqualTo(jdbcTemplate.queryForObject(
+                "select count(*) from member m join team t on t.team_id = m.team_id where t.name = 'team1' and m.age >= 50",
+                Long.class));
+    }
+
+}
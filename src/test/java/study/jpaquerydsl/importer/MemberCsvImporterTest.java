@@ -0,0 +1,188 @@
+package study.jpaquerydsl.importer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 내장 DB(H2, MySQL 모드)에 입력, 커밋되므로 테스트마다 정리
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "logging.level.org.hibernate.SQL=warn",
+        "logging.level.org.hibernate.type=warn"
+})
+class MemberCsvImporterTest {
+
+    static final int ROWS = 200_000;
+    static final int TEAMS = 10;
+
+    @TempDir
+    Path dir;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.update("delete from member_import_batch");
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @Test
+    @DisplayName("CSV 입력, 잘못된 행 보고, team.member_count 반영")
+    public void importCsv() throws Exception {
+        Path csv = writeCsv();
+        MemberCsvImporter importer = importer(new AtomicInteger(-1));
+
+        MemberImportJob job;
+        try (InputStream in = Files.newInputStream(csv)) {
+            job = importer.start(in);
+        }
+        MemberImportProgress progress = await(job);
+
+        assertThat(progress.state()).isEqualTo(MemberImportJob.State.COMPLETED);
+        assertThat(progress.importedRows()).isEqualTo(ROWS);
+        assertThat(progress.badRows()).isEqualTo(3);
+        assertThat(progress.errors()).hasSize(3);
+        assertImported();
+        assertDiscarded(job.getId());
+        assertThat(importer.job(job.getId())).isNotNull(); // 진행 상태는 completed-retention 동안 유지
+        importer.close();
+    }
+
+    @Test
+    @DisplayName("batch 실패 후 재개하면 커밋된 범위는 건너뛰고 나머지만 입력")
+    public void resume() throws Exception {
+        Path csv = writeCsv();
+        MemberCsvImporter importer = importer(new AtomicInteger(10)); // 11번째 batch에서 실패
+
+        MemberImportJob job;
+        try (InputStream in = Files.newInputStream(csv)) {
+            job = importer.start(in);
+        }
+        MemberImportProgress failed = await(job);
+        assertThat(failed.state()).isEqualTo(MemberImportJob.State.FAILED);
+        assertThat(failed.importedRows()).isLessThan(ROWS);
+        assertThat(dir.resolve(job.getId() + ".csv")).exists(); // 재개용 파일 유지
+
+        MemberImportProgress resumed = await(importer.resume(job.getId()));
+
+        assertThat(resumed.state()).isEqualTo(MemberImportJob.State.COMPLETED);
+        assertThat(failed.importedRows() + resumed.importedRows()).isEqualTo(ROWS);
+        assertImported();
+        assertDiscarded(job.getId());
+        importer.close();
+    }
+
+    @Test
+    @DisplayName("보관 기간이 지나면 실패한 입력의 파일, 체크포인트, 진행 상태 정리")
+    public void purge() throws Exception {
+        Path csv = writeCsv();
+        MemberCsvImporter importer = importer(new AtomicInteger(10), Duration.ZERO, Duration.ZERO);
+
+        MemberImportJob job;
+        try (InputStream in = Files.newInputStream(csv)) {
+            job = importer.start(in);
+        }
+        assertThat(await(job).state()).isEqualTo(MemberImportJob.State.FAILED);
+        assertThat(checkpoints(job.getId())).isPositive();
+
+        importer.purge();
+
+        assertThat(importer.job(job.getId())).isNull();
+        assertDiscarded(job.getId());
+        assertThat(importer.resume(job.getId())).isNull();
+        assertThat(csv).exists(); // 입력 파일이 아닌 파일은 그대로
+        importer.close();
+    }
+
+    private MemberCsvImporter importer(AtomicInteger failAfter) {
+        return importer(failAfter, Duration.ofMinutes(10), Duration.ofHours(24));
+    }
+
+    // failAfter번 insert 후 한 번 실패 (-1이면 실패 없음)
+    private MemberCsvImporter importer(AtomicInteger failAfter, Duration completedRetention, Duration failedRetention) {
+        return new MemberCsvImporter(jdbcTemplate, transactionTemplate, eventPublisher, dir, 1000, 4, 8, 100, false,
+                completedRetention, failedRetention) {
+            @Override
+            void insertBatch(String importId, Batch batch) {
+                if (failAfter.getAndDecrement() == 0) {
+                    throw new IllegalStateException("batch 실패");
+                }
+                super.insertBatch(importId, batch);
+            }
+        };
+    }
+
+    private void assertImported() {
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member", Long.class)).isEqualTo(ROWS);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from team", Long.class)).isEqualTo(TEAMS);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member where team_id is null", Long.class))
+                .isEqualTo(ROWS / 100);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from team t where t.member_count <> (select count(*) from member m where m.team_id = t.team_id)",
+                Long.class)).isZero();
+    }
+
+    // 완료되거나 보관 기간이 지난 입력은 업로드 파일, 체크포인트가 없음
+    private void assertDiscarded(String id) {
+        assertThat(dir.resolve(id + ".csv")).doesNotExist();
+        assertThat(checkpoints(id)).isZero();
+    }
+
+    private Long checkpoints(String id) {
+        return jdbcTemplate.queryForObject("select count(*) from member_import_batch where import_id = ?", Long.class, id);
+    }
+
+    // 헤더 + ROWS개 행 (100개 중 1개는 팀 없음) + 잘못된 행 3개 + 빈 줄
+    private Path writeCsv() throws Exception {
+        Path csv = dir.resolve("members.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            writer.write("username,age,teamName\n");
+            for (int i = 0; i < ROWS; i++) {
+                writer.write("member" + i + "," + (i % 100) + "," + (i % 100 == 0 ? "" : "team" + (i % TEAMS)) + "\n");
+                if (i == ROWS / 2) {
+                    writer.write("bad1,abc,team1\n");
+                    writer.write("bad2,10\n");
+                    writer.write("\r\n");
+                    writer.write(",20,team2\r\n");
+                }
+            }
+        }
+        return csv;
+    }
+
+    private MemberImportProgress await(MemberImportJob job) throws InterruptedException {
+        for (int i = 0; i < 1200 && job.getState() == MemberImportJob.State.RUNNING; i++) {
+            Thread.sleep(50);
+        }
+        return job.progress();
+    }
+
+}
@@ -0,0 +1,95 @@
+package study.jpaquerydsl.listener;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 커밋 직전에 증가하므로 트랜잭션 없이 실행하고 끝나면 만든 행만 정리
+ */
+@SpringBootTest
+class MemberDataVersionTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MemberDataVersion memberDataVersion;
+
+    List<Long> memberIds = new ArrayList<>();
+    List<Long> teamIds = new ArrayList<>();
+
+    @AfterEach
+    public void after() {
+        memberIds.forEach(id -> jdbcTemplate.update("delete from member where member_id = ?", id));
+        teamIds.forEach(id -> jdbcTemplate.update("delete from team where team_id = ?", id));
+    }
+
+    @Test
+    @DisplayName("변경된 트랜잭션마다 한 번 증가, 롤백되면 그대로")
+    public void incrementPerTransaction() throws Exception {
+        long before = memberDataVersion.current();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Team team = new Team("versionTeam");
+            em.persist(team);
+            teamIds.add(team.getId());
+            for (int i = 0; i < 3; i++) {
+                Member member = new Member("version" + i, i, team);
+                em.persist(member);
+                memberIds.add(member.getId());
+            }
+        });
+        assertThat(memberDataVersion.current()).isEqualTo(before + 1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            em.find(Member.class, memberIds.get(0)).setAge(100);
+            em.flush();
+            status.setRollbackOnly();
+        });
+        assertThat(memberDataVersion.current()).isEqualTo(before + 1);
+
+        transactionTemplate.executeWithoutResult(status -> em.find(Member.class, memberIds.get(0)).setAge(100));
+        assertThat(memberDataVersion.current()).isEqualTo(before + 2);
+    }
+
+    @Test
+    @DisplayName("ETag는 정규화한 조건 + 페이지 기준")
+    public void etag() throws Exception {
+        MemberSearchCondition empty = new MemberSearchCondition();
+        empty.setUsername("");
+        MemberSearchCondition none = new MemberSearchCondition();
+        MemberSearchCondition teamA = new MemberSearchCondition();
+        teamA.setTeamName("teamA");
+
+        assertThat(memberDataVersion.etag("v2", empty, PageRequest.of(1, 20)))
+                .isEqualTo(memberDataVersion.etag("v2", none, PageRequest.of(1, 20)));
+        assertThat(memberDataVersion.etag("v2", none, PageRequest.of(1, 20)))
+                .isNotEqualTo(memberDataVersion.etag("v2", teamA, PageRequest.of(1, 20)))
+                .isNotEqualTo(memberDataVersion.etag("v2", none, PageRequest.of(1, 20, Sort.by("age"))))
+                .isNotEqualTo(memberDataVersion.etag("v1", none, PageRequest.of(1, 20)));
+    }
+
+}
@@ -0,0 +1,8 @@
+package study.jpaquerydsl.perf;
+
+import org.springframework.test.context.TestPropertySource;
+
+// 워밍업 없이 readiness 직후 바로 트래픽
+@TestPropertySource(properties = "member.warm-up.enabled=false")
+class ColdStartLatencyPerfTest extends FirstMinuteLatencyPerfTest {
+}
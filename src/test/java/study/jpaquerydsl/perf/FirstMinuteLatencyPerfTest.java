@@ -0,0 +1,176 @@
+package study.jpaquerydsl.perf;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.jpaquerydsl.JpaQuerydslApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 기동 직후 1분 동안의 /v1, /v2 지연 시간 (./gradlew perfTest, 테스트 클래스마다 새 JVM)
+ * ColdStartLatencyPerfTest(워밍업 없음)와 WarmStartLatencyPerfTest(MemberWarmUp)의 10초 구간별 p50/p99를 비교
+ * 측정 시간: -Dperf.firstMinute.seconds=60
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = {JpaQuerydslApplication.class, FirstMinuteLatencyPerfTest.SeedConfig.class},
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:first-minute;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "member.concurrency-limit.enabled=false",
+                "member.cost-guard.enabled=false",
+                "member.warm-up.requests[0]=/v1/members?teamName=team1&ageGoe=20&ageLoe=24",
+                "member.warm-up.requests[1]=/v1/members?username=member1",
+                "member.warm-up.requests[2]=/v2/members?page=0&size=20",
+                "member.warm-up.requests[3]=/v2/members?teamName=team2&page=1&size=20&sort=age,desc",
+                "member.warm-up.requests[4]=/v2/members?ageGoe=30&page=2&size=20&sort=username",
+                "logging.level.org.hibernate.SQL=warn",
+                "logging.level.org.hibernate.type=warn"
+        })
+abstract class FirstMinuteLatencyPerfTest {
+
+    static final int TEAMS = 100;
+    static final int MEMBERS = 50_000;
+    private static final int CONCURRENCY = 8;
+    private static final long WINDOW_SECONDS = 10;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${member.warm-up.enabled}")
+    boolean warmUp;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("기동 직후 1분 동안 10초 구간별 지연 시간")
+    public void firstMinute() throws Exception {
+        long seconds = Long.getLong("perf.firstMinute.seconds", 60);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        Queue<long[]> samples = new ConcurrentLinkedQueue<>(); // {요청 시작 시점, 지연 시간}
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                Random random = new Random(i);
+                futures.add(clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        long requestStart = System.nanoTime();
+                        HttpResponse<byte[]> response = client.send(
+                                HttpRequest.newBuilder(URI.create("http://localhost:" + port + request(random))).build(),
+                                HttpResponse.BodyHandlers.ofByteArray());
+                        samples.add(new long[]{requestStart - start, System.nanoTime() - requestStart});
+                        if (response.statusCode() != 200) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        Timer warmUpDuration = meterRegistry.find("member.warm-up.duration").timer();
+        System.out.println("perf warmUp=" + warmUp + " warmUpMs="
+                + (warmUpDuration == null ? 0 : format(warmUpDuration.totalTime(TimeUnit.MILLISECONDS))));
+        long first = samples.stream().min(Comparator.comparingLong(sample -> sample[0])).map(sample -> sample[1]).orElse(0L);
+        System.out.println("perf warmUp=" + warmUp + " firstRequestMs=" + format(first / 1e6));
+
+        for (long window = 0; window < seconds; window += WINDOW_SECONDS) {
+            long from = TimeUnit.SECONDS.toNanos(window);
+            long to = TimeUnit.SECONDS.toNanos(window + WINDOW_SECONDS);
+            long[] latencies = samples.stream()
+                    .filter(sample -> sample[0] >= from && sample[0] < to)
+                    .mapToLong(sample -> sample[1])
+                    .sorted()
+                    .toArray();
+            if (latencies.length == 0) {
+                continue;
+            }
+            System.out.println("perf warmUp=" + warmUp + " " + window + "-" + (window + WINDOW_SECONDS) + "s"
+                    + " requests=" + latencies.length
+                    + " p50Ms=" + format(latencies[latencies.length / 2] / 1e6)
+                    + " p99Ms=" + format(latencies[latencies.length * 99 / 100] / 1e6)
+                    + " maxMs=" + format(latencies[latencies.length - 1] / 1e6));
+        }
+        assertThat(failures.get()).isZero();
+    }
+
+    // MemberEndpointPerfTest와 같은 조합, 워밍업 목록과 다른 값도 섞음
+    private String request(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> "/v1/members?teamName=team" + random.nextInt(TEAMS) + "&ageGoe=20&ageLoe=24";
+            case 1 -> "/v1/members?username=member" + random.nextInt(MEMBERS);
+            case 2 -> "/v2/members?page=" + random.nextInt(20) + "&size=20&teamName=team" + random.nextInt(TEAMS);
+            default -> "/v2/members?page=" + random.nextInt(20) + "&size=20&ageGoe=" + random.nextInt(100) + "&sort=age,desc";
+        };
+    }
+
+    private String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    // MemberWarmUp보다 먼저 데이터 입력 (팀 100개, 회원 5만명, 10명 중 1명은 팀 없음)
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SeedConfig {
+
+        @Bean
+        @Order(Ordered.HIGHEST_PRECEDENCE)
+        ApplicationRunner seedMembers(JdbcTemplate jdbcTemplate) {
+            return args -> {
+                List<Object[]> teams = new ArrayList<>();
+                for (int i = 0; i < TEAMS; i++) {
+                    teams.add(new Object[]{i + 1L, "team" + i});
+                }
+                jdbcTemplate.batchUpdate("insert into team (team_id, name, member_count) values (?, ?, 0)", teams);
+
+                List<Object[]> members = new ArrayList<>();
+                for (int i = 0; i < MEMBERS; i++) {
+                    Long teamId = i % 10 == 0 ? null : (long) (i % TEAMS) + 1;
+                    members.add(new Object[]{i + 1L, "member" + i, i % 100, teamId});
+                }
+                jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", members);
+                jdbcTemplate.update("update team t set member_count = (select count(*) from member m where m.team_id = t.team_id)");
+            };
+        }
+
+    }
+
+}
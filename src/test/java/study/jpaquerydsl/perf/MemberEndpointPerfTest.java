@@ -0,0 +1,237 @@
+package study.jpaquerydsl.perf;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /v1/members, /v2/members 성능 회귀 테스트 (./gradlew perfTest)
+ * H2 내장 DB에 대량 데이터를 넣고 고정된 요청 조합을 고정 동시성으로 보내서
+ * 처리량, p50/p99, 요청당 SQL 수를 perf/baseline.properties와 비교
+ * 기준값 갱신: ./gradlew perfTest -PupdateBaseline
+ */
+@Tag("perf")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:perf;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "member.concurrency-limit.enabled=false", // 503 없이 고정 동시성 그대로 측정
+        "member.cost-guard.enabled=false", // 넓은 나이 범위 검색도 400 없이 그대로 측정
+        "logging.level.org.hibernate.SQL=warn",
+        "logging.level.org.hibernate.type=warn",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=warn"
+})
+class MemberEndpointPerfTest {
+
+    private static final int TEAMS = 100;
+    private static final int MEMBERS = 100_000;
+    private static final int CONCURRENCY = 16;
+    private static final int WARMUP_REQUESTS = 500;
+    private static final int REQUESTS = 4_000;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManagerFactory emf;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("/v1, /v2 처리량, p50/p99, 요청당 SQL 수가 기준값보다 나빠지지 않음")
+    public void endpoints() throws Exception {
+        seed();
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, String> result = new TreeMap<>();
+        measure("v1", this::v1Request, statistics, result);
+        measure("v2", this::v2Request, statistics, result);
+        result.forEach((key, value) -> System.out.println("perf " + key + "=" + value));
+
+        Path baselineFile = Path.of(System.getProperty("perf.baseline", "src/test/resources/perf/baseline.properties"));
+        if (Boolean.getBoolean("perf.updateBaseline")) {
+            writeBaseline(baselineFile, result);
+            return;
+        }
+        double tolerance = Double.parseDouble(System.getProperty("perf.tolerance", "0.2"));
+        assertThat(regressions(readBaseline(baselineFile), result, tolerance)).isEmpty();
+    }
+
+    private void measure(String endpoint, Function<Random, String> requests, Statistics statistics, Map<String, String> result) throws Exception {
+        // 워밍업 겸 요청당 SQL 수 (순차 실행이라 요청별로 정확히 셀 수 있음)
+        Random random = new Random(42);
+        long statements = 0;
+        long maxStatements = 0;
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            long before = statistics.getPrepareStatementCount();
+            send(requests.apply(random));
+            long count = statistics.getPrepareStatementCount() - before;
+            statements += count;
+            maxStatements = Math.max(maxStatements, count);
+        }
+
+        // 고정 동시성, 모든 스레드가 같은 순서의 요청 목록을 나눠서 보냄
+        List<String> uris = new ArrayList<>();
+        for (int i = 0; i < REQUESTS; i++) {
+            uris.add(requests.apply(random));
+        }
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService clients = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < CONCURRENCY; i++) {
+                futures.add(clients.submit(() -> {
+                    for (int index = next.getAndIncrement(); index < REQUESTS; index = next.getAndIncrement()) {
+                        long requestStart = System.nanoTime();
+                        send(uris.get(index));
+                        latencies[index] = System.nanoTime() - requestStart;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        result.put(endpoint + ".throughput", format(REQUESTS * 1e9 / elapsed));
+        result.put(endpoint + ".p50Ms", format(latencies[REQUESTS / 2] / 1e6));
+        result.put(endpoint + ".p99Ms", format(latencies[REQUESTS * 99 / 100] / 1e6));
+        result.put(endpoint + ".statements.avg", format((double) statements / WARMUP_REQUESTS));
+        result.put(endpoint + ".statements.max", String.valueOf(maxStatements));
+    }
+
+    // 조회 조건 없이 전체를 받는 요청은 제외 (v1은 페이징이 없음)
+    private String v1Request(Random random) {
+        return switch (random.nextInt(3)) {
+            case 0 -> "/v1/members?teamName=team" + random.nextInt(TEAMS) + "&ageGoe=20&ageLoe=24";
+            case 1 -> "/v1/members?username=member" + random.nextInt(MEMBERS);
+            default -> "/v1/members?ageGoe=" + random.nextInt(100) + "&ageLoe=" + random.nextInt(100);
+        };
+    }
+
+    private String v2Request(Random random) {
+        String condition = switch (random.nextInt(4)) {
+            case 0 -> "";
+            case 1 -> "&teamName=team" + random.nextInt(TEAMS);
+            case 2 -> "&ageGoe=" + random.nextInt(100);
+            default -> "&username=member" + random.nextInt(MEMBERS);
+        };
+        String sort = switch (random.nextInt(3)) {
+            case 0 -> "";
+            case 1 -> "&sort=age,desc";
+            default -> "&sort=username";
+        };
+        return "/v2/members?page=" + random.nextInt(20) + "&size=20" + condition + sort;
+    }
+
+    private void send(String uri) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + uri)).build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertThat(response.statusCode()).as(uri).isEqualTo(200);
+    }
+
+    // 팀 100개, 회원 10만명 (10명 중 1명은 팀 없음)
+    private void seed() {
+        List<Object[]> teams = new ArrayList<>();
+        for (int i = 0; i < TEAMS; i++) {
+            teams.add(new Object[]{i + 1L, "team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (team_id, name, member_count) values (?, ?, 0)", teams);
+
+        List<Object[]> members = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            Long teamId = i % 10 == 0 ? null : (long) (i % TEAMS) + 1;
+            members.add(new Object[]{i + 1L, "member" + i, i % 100, teamId});
+        }
+        jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", members);
+        jdbcTemplate.update("update team t set member_count = (select count(*) from member m where m.team_id = t.team_id)");
+    }
+
+    /**
+     * 기준값에 있는 키만 비교
+     * throughput은 (1 - tolerance)배 이상, p50Ms/p99Ms는 (1 + tolerance)배 이하, statements는 늘어나면 안 됨
+     */
+    private List<String> regressions(Properties baseline, Map<String, String> result, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (String key : new TreeSet<>(baseline.stringPropertyNames())) {
+            double expected = Double.parseDouble(baseline.getProperty(key));
+            double actual = Double.parseDouble(result.getOrDefault(key, "NaN"));
+            boolean regressed;
+            if (key.endsWith(".throughput")) {
+                regressed = !(actual >= expected * (1 - tolerance));
+            } else if (key.contains(".statements.")) {
+                regressed = !(actual <= expected + 0.005);
+            } else {
+                regressed = !(actual <= expected * (1 + tolerance));
+            }
+            if (regressed) {
+                regressions.add(key + ": baseline " + expected + ", actual " + actual);
+            }
+        }
+        return regressions;
+    }
+
+    private Properties readBaseline(Path file) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            baseline.load(reader);
+        }
+        return baseline;
+    }
+
+    // 주석은 유지하고 값만 다시 씀
+    private void writeBaseline(Path file, Map<String, String> result) throws IOException {
+        List<String> lines = new ArrayList<>();
+        if (Files.exists(file)) {
+            Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                    .filter(line -> line.startsWith("#"))
+                    .forEach(lines::add);
+        }
+        result.forEach((key, value) -> lines.add(key + "=" + value));
+        Files.write(file, lines, StandardCharsets.UTF_8);
+        System.out.println("perf baseline updated: " + file.toAbsolutePath());
+    }
+
+    private String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+}
@@ -0,0 +1,8 @@
+package study.jpaquerydsl.perf;
+
+import org.springframework.test.context.TestPropertySource;
+
+// MemberWarmUp이 끝난 뒤(readiness 이후) 트래픽
+@TestPropertySource(properties = "member.warm-up.enabled=true")
+class WarmStartLatencyPerfTest extends FirstMinuteLatencyPerfTest {
+}
@@ -0,0 +1,63 @@
+package study.jpaquerydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.MemberTeamView;
+import study.jpaquerydsl.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"member.write-behind.enabled=true", "member.read-model.enabled=true"})
+@Transactional
+class JdbcMemberUpdateFlusherTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    JdbcMemberUpdateFlusher flusher;
+
+    @Test
+    @DisplayName("age, team batch update + member_count, member_team 동기화")
+    public void flush() throws Exception {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        Member member3 = new Member("member3", 30, teamB);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.flush();
+        em.clear();
+
+        flusher.flush(List.of(
+                MemberUpdate.age(member1.getId(), 11).merge(MemberUpdate.team(member1.getId(), teamB.getId())),
+                MemberUpdate.team(member2.getId(), null),
+                MemberUpdate.team(member3.getId(), teamB.getId()), // 같은 팀이면 member_count 그대로
+                MemberUpdate.age(-1L, 1))); // 없는 member는 무시
+
+        Member foundMember1 = em.find(Member.class, member1.getId());
+        assertThat(foundMember1.getAge()).isEqualTo(11);
+        assertThat(foundMember1.getTeam().getName()).isEqualTo("teamB");
+        assertThat(em.find(Member.class, member2.getId()).getTeam()).isNull();
+
+        assertThat(em.find(Team.class, teamA.getId()).getMemberCount()).isZero();
+        assertThat(em.find(Team.class, teamB.getId()).getMemberCount()).isEqualTo(2);
+
+        MemberTeamView view = em.find(MemberTeamView.class, member1.getId());
+        assertThat(view.getAge()).isEqualTo(11);
+        assertThat(view.getTeamName()).isEqualTo("teamB");
+    }
+
+}
@@ -0,0 +1,103 @@
+package study.jpaquerydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberBatchLoaderTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+
+    @Test
+    @DisplayName("여러 id를 in 쿼리 한 번으로 조회")
+    public void batchLoad() throws Exception {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Member member = new Member("member" + i, i, teamA);
+            em.persist(member);
+            ids.add(member.getId());
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        MemberBatchLoader loader = new MemberBatchLoader(memberJpaRepository);
+        CompletableFuture<Optional<Member>> first = loader.load(ids.get(0));
+        CompletableFuture<Optional<Member>> duplicated = loader.load(ids.get(0));
+        Map<Long, Member> result = loader.findAll(ids);
+
+        assertThat(result).hasSize(50);
+        assertThat(first.join()).containsSame(result.get(ids.get(0)));
+        assertThat(duplicated.join()).containsSame(result.get(ids.get(0)));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // 같은 요청 안에서 다시 조회하면 캐시에서 반환
+        assertThat(loader.find(ids.get(1))).containsSame(result.get(ids.get(1)));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("join 하면 그때까지 모인 id를 자동으로 조회")
+    public void dispatchOnJoin() throws Exception {
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamA);
+        em.persist(member1);
+        em.persist(member2);
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        MemberBatchLoader loader = new MemberBatchLoader(memberJpaRepository);
+        CompletableFuture<Optional<Member>> first = loader.load(member1.getId());
+        CompletableFuture<Optional<Member>> second = loader.load(member2.getId());
+
+        assertThat(first.join()).map(Member::getUsername).contains("member1");
+        assertThat(second.join()).map(Member::getUsername).contains("member2");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @DisplayName("없는 id는 empty")
+    public void missingId() throws Exception {
+        MemberBatchLoader loader = new MemberBatchLoader(memberJpaRepository);
+
+        assertThat(loader.find(-1L)).isEmpty();
+    }
+
+}
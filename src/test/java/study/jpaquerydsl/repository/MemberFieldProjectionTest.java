@@ -0,0 +1,132 @@
+package study.jpaquerydsl.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberField;
+import study.jpaquerydsl.dto.MemberFieldsDto;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.UnsupportedFieldException;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = SqlCapture.PROPERTY)
+@Transactional
+class MemberFieldProjectionTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberRepositoryImpl memberRepositoryImpl;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Team teamA;
+
+    @BeforeEach
+    public void before() {
+        teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 1000; i++) {
+            em.persist(new Member("member" + i, i % 100, i % 2 == 0 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("선택한 필드만 조회, 응답도 선택한 필드만")
+    public void selectedFields() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername("member10");
+        Set<MemberField> fields = MemberField.parse("username,age,teamId");
+
+        List<MemberFieldsDto> result = memberRepository.search(condition, fields);
+
+        assertThat(result).hasSize(1);
+        assertThat(objectMapper.writeValueAsString(result.get(0)))
+                .isEqualTo("{\"username\":\"member10\",\"age\":10,\"teamId\":" + teamA.getId() + "}");
+    }
+
+    @Test
+    @DisplayName("페이지 조회도 선택한 필드만")
+    public void selectedFieldsPage() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+
+        Page<MemberFieldsDto> page = memberRepository.searchPage(condition, MemberField.parse("memberId,teamName"),
+                PageRequest.of(0, 10, Sort.by("memberId")));
+
+        assertThat(page.getTotalElements()).isEqualTo(500);
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getContent()).allMatch(dto -> "teamA".equals(dto.get(MemberField.TEAM_NAME)));
+        assertThat(page.getContent()).allMatch(dto -> dto.get(MemberField.USERNAME) == null);
+    }
+
+    @Test
+    @DisplayName("team 필드나 teamName 조건이 없으면 team join 생략")
+    public void joinElimination() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(29);
+
+        assertThat(memberRepositoryImpl.fieldsQuery(condition, MemberField.parse("username,age,teamId")).toString())
+                .doesNotContain("join");
+        assertThat(memberRepositoryImpl.fieldsQuery(condition, MemberField.parse("username,teamName")).toString())
+                .contains("left join");
+
+        condition.setTeamName("teamA");
+        assertThat(memberRepositoryImpl.fieldsQuery(condition, MemberField.parse("username")).toString())
+                .contains("left join");
+    }
+
+    @Test
+    @DisplayName("join 생략 시 쿼리 비용 비교 (fieldsQuery가 실제로 만든 SQL의 EXPLAIN)")
+    public void joinFreeCost() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+        condition.setAgeLoe(29);
+
+        double joined = queryCost(condition, MemberField.parse("username,age,teamName"));
+        double joinFree = queryCost(condition, MemberField.parse("username,age"));
+
+        assertThat(joinFree).isPositive(); // EXPLAIN에 query_cost가 없으면 0
+        assertThat(joinFree).isLessThan(joined);
+    }
+
+    @Test
+    @DisplayName("없는 필드는 거부")
+    public void unsupportedField() throws Exception {
+        assertThatThrownBy(() -> MemberField.parse("username,password"))
+                .isInstanceOf(UnsupportedFieldException.class);
+    }
+
+    private double queryCost(MemberSearchCondition condition, Set<MemberField> fields) {
+        List<String> sql = SqlCapture.capture(() -> memberRepository.search(condition, fields));
+        return SqlCapture.explain(em, sql.get(0), condition.getAgeGoe(), condition.getAgeLoe())
+                .path("query_block").path("cost_info").path("query_cost").asDouble();
+    }
+
+}
@@ -0,0 +1,96 @@
+package study.jpaquerydsl.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.env.MockEnvironment;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.repository.MemberQueryCostGuard.TableStats;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberQueryCostGuardTest {
+
+    // 회원 100만, 보관 10만, 팀 100개, username 모두 다름, 나이 0 ~ 99
+    static final TableStats STATS = new TableStats(1_000_000, 100_000, 100, 1_000_000, 0, 99);
+
+    SimpleMeterRegistry meterRegistry;
+    AtomicInteger loads;
+    MemberQueryCostGuard guard;
+
+    @BeforeEach
+    public void before() {
+        meterRegistry = new SimpleMeterRegistry();
+        loads = new AtomicInteger();
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("member.cost-guard.v1.max-rows", "10000")
+                .withProperty("member.cost-guard.v2.max-page-size", "100");
+        guard = new MemberQueryCostGuard(() -> {
+            loads.incrementAndGet();
+            return STATS;
+        }, meterRegistry, environment);
+    }
+
+    @Test
+    @DisplayName("조건별 선택도로 예상 행 수 계산")
+    public void estimate() throws Exception {
+        assertThat(guard.estimateRows(new MemberSearchCondition())).isEqualTo(1_000_000);
+        assertThat(guard.estimateRows(condition(null, "teamA", null, null))).isEqualTo(10_000);
+        assertThat(guard.estimateRows(condition("member1", null, null, null))).isEqualTo(1);
+        assertThat(guard.estimateRows(condition(null, null, 20, 29))).isEqualTo(100_000);
+        assertThat(guard.estimateRows(condition(null, "teamA", 20, 29))).isEqualTo(1_000);
+        assertThat(guard.estimateRows(condition(null, null, 30, 20))).isEqualTo(0);
+
+        MemberSearchCondition archived = new MemberSearchCondition();
+        archived.setIncludeArchived(true);
+        assertThat(guard.estimateRows(archived)).isEqualTo(1_100_000);
+
+        assertThat(loads.get()).isEqualTo(1); // 통계는 캐시
+    }
+
+    @Test
+    @DisplayName("예상 행 수가 max-rows를 넘으면 거부")
+    public void reject() throws Exception {
+        assertThatThrownBy(() -> guard.check("v1", condition(null, null, 20, 29)))
+                .isInstanceOf(QueryCostExceededException.class);
+        guard.check("v1", condition(null, "teamA", 20, 29));
+        guard.check("v1", condition("member1", null, null, null));
+
+        assertThat(meterRegistry.counter("member.search.cost.rejected", "endpoint", "v1").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("페이지 크기가 max-page-size를 넘으면 줄임")
+    public void clamp() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+
+        Pageable clamped = guard.check("v2", condition, PageRequest.of(2, 500));
+        assertThat(clamped.getPageSize()).isEqualTo(100);
+        assertThat(clamped.getOffset()).isEqualTo(1000);
+
+        // offset이 max-page-size의 배수가 아니어도 요청한 첫 행부터
+        Pageable nonAligned = guard.check("v2", condition, PageRequest.of(1, 150));
+        assertThat(nonAligned.getPageSize()).isEqualTo(100);
+        assertThat(nonAligned.getOffset()).isEqualTo(150);
+        assertThat(nonAligned.next().getOffset()).isEqualTo(250);
+
+        assertThat(guard.check("v2", condition, PageRequest.of(0, 20))).isEqualTo(PageRequest.of(0, 20));
+        assertThat(meterRegistry.counter("member.search.cost.clamped", "endpoint", "v2").count()).isEqualTo(2);
+    }
+
+    private MemberSearchCondition condition(String username, String teamName, Integer ageGoe, Integer ageLoe) {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setUsername(username);
+        condition.setTeamName(teamName);
+        condition.setAgeGoe(ageGoe);
+        condition.setAgeLoe(ageLoe);
+        return condition;
+    }
+
+}
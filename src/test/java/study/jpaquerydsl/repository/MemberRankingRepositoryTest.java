@@ -0,0 +1,136 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberAgeStatDto;
+import study.jpaquerydsl.dto.MemberRankDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.QMember;
+import study.jpaquerydsl.entity.Team;
+
+import java.util.List;
+
+import static com.querydsl.jpa.JPAExpressions.select;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static study.jpaquerydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class MemberRankingRepositoryTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    MemberRankingRepository memberRankingRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        em.persist(new Member("member1", 10, teamA));
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40, teamB));
+        em.persist(new Member("member5", 50, teamB));
+        em.persist(new Member("member6", 50));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("팀별 나이 상위 N명")
+    public void findOldestPerTeam() throws Exception {
+        List<MemberRankDto> result = memberRankingRepository.findOldestPerTeam(2);
+
+        assertThat(result)
+                .extracting("teamName", "username", "rank")
+                .containsExactly(
+                        tuple("teamA", "member2", 1L),
+                        tuple("teamA", "member1", 2L),
+                        tuple("teamB", "member5", 1L),
+                        tuple("teamB", "member4", 2L));
+    }
+
+    @Test
+    @DisplayName("회원 나이와 팀 평균 나이")
+    public void findAgeWithTeamAverage() throws Exception {
+        List<MemberAgeStatDto> result = memberRankingRepository.findAgeWithTeamAverage();
+
+        assertThat(result)
+                .extracting("username", "teamAvgAge")
+                .containsExactly(
+                        tuple("member1", 15.0),
+                        tuple("member2", 15.0),
+                        tuple("member3", 40.0),
+                        tuple("member4", 40.0),
+                        tuple("member5", 40.0));
+    }
+
+    @Test
+    @DisplayName("window function 결과가 상관 서브쿼리 결과에 포함")
+    public void sameAsSubQuery() throws Exception {
+        List<MemberRankDto> windowResult = memberRankingRepository.findOldestPerTeam(1);
+        List<Member> subQueryResult = oldestPerTeamBySubQuery(new QMember("memberSub"));
+
+        // 서브쿼리는 동률을 모두 반환하므로 window function 결과를 포함
+        assertThat(subQueryResult).extracting("id")
+                .containsAll(windowResult.stream().map(MemberRankDto::getMemberId).toList());
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("window function vs 상관 서브쿼리")
+    public void benchmark() throws Exception {
+        List<Team> teams = em.createQuery("select t from Team t", Team.class).getResultList();
+        for (int i = 0; i < 3000; i++) {
+            em.persist(new Member("bench" + i, i % 80, teams.get(i % teams.size())));
+        }
+        em.flush();
+        em.clear();
+
+        QMember memberSub = new QMember("memberSub");
+        for (int i = 0; i < 3; i++) { // warm-up
+            memberRankingRepository.findOldestPerTeam(1);
+            oldestPerTeamBySubQuery(memberSub);
+        }
+
+        long start = System.nanoTime();
+        memberRankingRepository.findOldestPerTeam(1);
+        long windowNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        oldestPerTeamBySubQuery(memberSub);
+        long subQueryNanos = System.nanoTime() - start;
+
+        System.out.println("window function = " + windowNanos / 1_000 + "us, correlated subquery = " + subQueryNanos / 1_000 + "us");
+    }
+
+    // 팀에서 가장 나이가 많은 회원 (상관 서브쿼리)
+    private List<Member> oldestPerTeamBySubQuery(QMember memberSub) {
+        return queryFactory
+                .selectFrom(member)
+                .where(member.team.isNotNull(),
+                        member.age.eq(
+                                select(memberSub.age.max())
+                                        .from(memberSub)
+                                        .where(memberSub.team.eq(member.team))
+                        ))
+                .fetch();
+    }
+
+}
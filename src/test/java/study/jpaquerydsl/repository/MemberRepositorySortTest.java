@@ -0,0 +1,100 @@
+package study.jpaquerydsl.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = SqlCapture.PROPERTY)
+@Transactional
+class MemberRepositorySortTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 1000; i++) {
+            em.persist(new Member("member" + (i % 300), i % 70, i % 2 == 0 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("Pageable 정렬 + member.id 보조 정렬")
+    public void sort() throws Exception {
+        PageRequest pageRequest = PageRequest.of(1, 50, Sort.by(Sort.Order.desc("age")));
+
+        List<MemberTeamDto> content = memberRepository.searchPage(new MemberSearchCondition(), pageRequest).getContent();
+
+        assertThat(content).hasSize(50);
+        assertThat(content).isSortedAccordingTo(
+                Comparator.comparing(MemberTeamDto::getAge).reversed()
+                        .thenComparing(MemberTeamDto::getMemberId, Comparator.reverseOrder()));
+    }
+
+    @Test
+    @DisplayName("인덱스가 없는 정렬 속성은 거부")
+    public void unsupportedSort() throws Exception {
+        PageRequest pageRequest = PageRequest.of(0, 10, Sort.by("teamName"));
+
+        assertThatThrownBy(() -> memberRepository.searchPage(new MemberSearchCondition(), pageRequest))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+
+    @Test
+    @DisplayName("정렬 속성 두 개, memberId 방향이 다르면 filesort라 거부")
+    public void unsupportedSortCombination() throws Exception {
+        PageRequest twoKeys = PageRequest.of(0, 10, Sort.by("age", "username"));
+        PageRequest mixedId = PageRequest.of(0, 10, Sort.by(Sort.Order.desc("age"), Sort.Order.asc("memberId")));
+
+        assertThatThrownBy(() -> memberRepository.searchPage(new MemberSearchCondition(), twoKeys))
+                .isInstanceOf(UnsupportedSortException.class);
+        assertThatThrownBy(() -> memberRepository.searchPage(new MemberSearchCondition(), mixedId))
+                .isInstanceOf(UnsupportedSortException.class);
+    }
+
+    @Test
+    @DisplayName("허용한 정렬은 searchPage가 실제로 만든 SQL에서 filesort 없이 인덱스 순서로 top-N")
+    public void explainNoFilesort() throws Exception {
+        List<Sort> sorts = List.of(
+                Sort.by("username"),
+                Sort.by(Sort.Order.desc("age"), Sort.Order.desc("memberId")),
+                Sort.by("memberId"),
+                Sort.unsorted());
+        for (Sort sort : sorts) {
+            List<String> sql = SqlCapture.capture(() ->
+                    memberRepository.searchPage(new MemberSearchCondition(), PageRequest.of(0, 20, sort)));
+
+            JsonNode plan = SqlCapture.explain(em, sql.get(0), 20); // content 쿼리, limit 20
+            assertThat(plan.findValues("using_filesort")).as(sort + ": " + plan)
+                    .allMatch(value -> !value.asBoolean());
+        }
+    }
+
+}
@@ -1,11 +1,18 @@
 package study.jpaquerydsl.repository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
 import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
 
 import java.util.List;
 
@@ -15,6 +22,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 @Transactional
 class MemberRepositoryTest {
 
+    @PersistenceContext
+    EntityManager em;
+
     @Autowired
     MemberRepository memberRepository;
 
@@ -36,4 +46,26 @@ class MemberRepositoryTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("searchPage 전체 개수는 검색 조건을 적용한 개수")
+    public void searchPageTotal() throws Exception {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("member" + i, i * 10, i < 6 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamA");
+        condition.setAgeGoe(20);
+        Page<MemberTeamDto> page = memberRepository.searchPage(condition, PageRequest.of(0, 2));
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isEqualTo(4); // member2 ~ member5
+    }
+
+}
@@ -0,0 +1,144 @@
+package study.jpaquerydsl.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.MemberTeamView;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.listener.MemberTeamViewListenerRegistrar;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = "member.read-model.enabled=true")
+@Transactional
+class MemberTeamViewTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberTeamViewListenerRegistrar registrar;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    Team teamA;
+    Team teamB;
+    Member member1;
+
+    @BeforeEach
+    public void before() {
+        teamA = new Team("teamA");
+        teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        member1 = new Member("member1", 10, teamA);
+        em.persist(member1);
+        em.persist(new Member("member2", 20, teamA));
+        em.persist(new Member("member3", 30, teamB));
+        em.persist(new Member("member4", 40));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("insert 시 member_team 동기화")
+    public void insert() throws Exception {
+        List<MemberTeamView> result = em.createQuery("select v from MemberTeamView v order by v.username", MemberTeamView.class)
+                .getResultList();
+
+        assertThat(result)
+                .extracting("username", "age", "teamName")
+                .containsExactly(
+                        tuple("member1", 10, "teamA"),
+                        tuple("member2", 20, "teamA"),
+                        tuple("member3", 30, "teamB"),
+                        tuple("member4", 40, null));
+    }
+
+    @Test
+    @DisplayName("changeTeam, 팀 이름 변경, 삭제 시 member_team 동기화")
+    public void update() throws Exception {
+        Member foundMember = em.find(Member.class, member1.getId());
+        foundMember.changeTeam(em.find(Team.class, teamB.getId()));
+        em.find(Team.class, teamA.getId()).setName("teamC");
+        em.flush();
+        em.clear();
+
+        assertThat(em.find(MemberTeamView.class, member1.getId()).getTeamName()).isEqualTo("teamB");
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setTeamName("teamC");
+        assertThat(memberRepository.search(condition))
+                .extracting("username")
+                .containsExactly("member2");
+
+        em.remove(em.find(Member.class, member1.getId()));
+        em.flush();
+        em.clear();
+
+        assertThat(em.find(MemberTeamView.class, member1.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("searchPage는 member_team에서 조회")
+    public void searchPage() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(20);
+
+        List<MemberTeamDto> content = memberRepository.searchPage(condition, PageRequest.of(0, 2))
+                .getContent();
+
+        assertThat(content).hasSize(2);
+        assertThat(content).allMatch(dto -> dto.getAge() >= 20);
+    }
+
+    @Test
+    @DisplayName("기동 시 재생성은 비어 있거나 스키마 버전이 바뀐 경우만")
+    public void rebuildIfStale() throws Exception {
+        registrar.rebuild(); // 기동 시점엔 데이터가 없어서 member_team이 비었을 수 있음
+        jdbcTemplate.update("delete from member_team where member_id = ?", member1.getId());
+
+        registrar.rebuild();
+        assertThat(count()).isEqualTo(3); // 최신이면 다시 쓰지 않음
+
+        jdbcTemplate.update("update data_version set version = ? where name = 'member_team'", MemberTeamViewWriter.SCHEMA_VERSION - 1);
+        registrar.rebuild();
+        assertThat(count()).isEqualTo(4);
+
+        jdbcTemplate.update("delete from member_team");
+        registrar.rebuild();
+        assertThat(count()).isEqualTo(4);
+
+        // read-model을 끈 채로 기동한 뒤 (MemberTeamViewStaleMarker)
+        jdbcTemplate.update("delete from member_team where member_id = ?", member1.getId());
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            MemberTeamViewWriter.markStale(connection);
+            return null;
+        });
+        registrar.rebuild();
+        assertThat(count()).isEqualTo(4);
+    }
+
+    private Integer count() {
+        return jdbcTemplate.queryForObject("select count(*) from member_team", Integer.class);
+    }
+
+}
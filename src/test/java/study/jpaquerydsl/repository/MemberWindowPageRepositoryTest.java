@@ -0,0 +1,169 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.sql.Configuration;
+import com.querydsl.sql.SQLBaseListener;
+import com.querydsl.sql.SQLListenerContext;
+import com.querydsl.sql.SQLQueryFactory;
+import com.querydsl.sql.spring.SpringConnectionProvider;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberWindowPageRepositoryTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberWindowPageRepositoryTest.class);
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberWindowPageRepository memberWindowPageRepository;
+
+    @Autowired
+    SQLQueryFactory sqlQueryFactory;
+
+    @Autowired
+    DataSource dataSource;
+
+    AtomicInteger sqlStatements = new AtomicInteger(); // querydsl-sql 실행 수 (Hibernate 통계에 안 잡힘)
+
+    @BeforeEach
+    public void before() {
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        for (int i = 0; i < 30; i++) {
+            Team selectedTeam = i % 3 == 0 ? null : (i % 3 == 1 ? teamA : teamB);
+            em.persist(new Member("member" + (i % 7), i, selectedTeam));
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    @DisplayName("기존 content + count 쿼리와 같은 결과")
+    public void sameAsTwoQueries() throws Exception {
+        MemberSearchCondition teamA = new MemberSearchCondition();
+        teamA.setTeamName("teamA");
+        MemberSearchCondition age = new MemberSearchCondition();
+        age.setAgeGoe(5);
+        age.setAgeLoe(25);
+
+        for (MemberSearchCondition condition : List.of(new MemberSearchCondition(), teamA, age)) {
+            for (Pageable pageable : List.of(
+                    PageRequest.of(0, 4),
+                    PageRequest.of(1, 4, Sort.by(Sort.Direction.DESC, "age")),
+                    PageRequest.of(2, 3, Sort.by("username")))) {
+                Page<MemberTeamDto> expected = memberRepository.searchPage(condition, pageable);
+                Page<MemberTeamDto> result = memberWindowPageRepository.searchPage(condition, pageable);
+
+                assertThat(result.getTotalElements()).isEqualTo(expected.getTotalElements());
+                assertThat(result.getContent())
+                        .usingRecursiveFieldByFieldElementComparator()
+                        .containsExactlyElementsOf(expected.getContent());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("빈 페이지는 전체 개수를 알 수 없으므로 null")
+    public void emptyPage() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        assertThat(memberWindowPageRepository.searchPage(condition, PageRequest.of(100, 10))).isNull();
+
+        condition.setUsername("none");
+        assertThat(memberWindowPageRepository.searchPage(condition, PageRequest.of(0, 10))).isNull();
+    }
+
+    @Test
+    @DisplayName("페이지 하나에 content + count 두 번 대신 한 번 실행")
+    public void roundTrips() throws Exception {
+        // 공유 SQLQueryFactory에 listener를 남기지 않도록 이 테스트 전용 factory로 실행 수를 셈
+        Configuration configuration = new Configuration(sqlQueryFactory.getConfiguration().getTemplates());
+        configuration.addListener(new SQLBaseListener() {
+            @Override
+            public void preExecute(SQLListenerContext context) {
+                sqlStatements.incrementAndGet();
+            }
+        });
+        MemberWindowPageRepository countedRepository =
+                new MemberWindowPageRepository(new SQLQueryFactory(configuration, new SpringConnectionProvider(dataSource)));
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(5);
+        PageRequest pageable = PageRequest.of(1, 5, Sort.by("age"));
+
+        memberRepository.searchPage(condition, pageable);
+        long jpaStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+
+        countedRepository.searchPage(condition, pageable);
+
+        assertThat(jpaStatements).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(sqlStatements.get()).isEqualTo(1);
+
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("content + count와 count(*) over() 평균 시간 비교")
+    public void latency() throws Exception {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(5);
+        PageRequest pageable = PageRequest.of(1, 5, Sort.by("age"));
+
+        long twoQueries = measure(() -> memberRepository.searchPage(condition, pageable));
+        long windowCount = measure(() -> memberWindowPageRepository.searchPage(condition, pageable));
+
+        log.info("content + count: {} us, count(*) over(): {} us", twoQueries, windowCount);
+    }
+
+    // 200번 실행한 평균 시간(us), 워밍업 실행은 제외
+    private long measure(Supplier<Page<MemberTeamDto>> query) {
+        for (int i = 0; i < 50; i++) {
+            query.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < 200; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / 200 / 1000;
+    }
+
+}
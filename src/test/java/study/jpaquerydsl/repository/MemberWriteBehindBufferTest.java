@@ -0,0 +1,248 @@
+package study.jpaquerydsl.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberWriteBehindBufferTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MemberWriteBehindBufferTest.class);
+
+    private static final Duration NEVER = Duration.ofHours(1); // 주기 flush 없이 직접 flush
+
+    @Test
+    @DisplayName("같은 member의 변경은 마지막 값 하나로 합쳐서 반영")
+    public void coalesce() throws Exception {
+        FakeMemberStore store = new FakeMemberStore(0);
+        MemberWriteBehindBuffer buffer = new MemberWriteBehindBuffer(store, 4, 100, Duration.ofMillis(100), NEVER);
+
+        buffer.updateAge(1L, 10);
+        buffer.changeTeam(1L, 1L);
+        buffer.updateAge(1L, 11);
+        buffer.changeTeam(1L, null);
+        buffer.updateAge(2L, 20);
+
+        assertThat(buffer.pending()).isEqualTo(2);
+        assertThat(buffer.flush()).isEqualTo(2);
+        assertThat(buffer.pending()).isZero();
+
+        assertThat(store.rows).hasSize(2);
+        assertThat(store.rows.get(1L)).isEqualTo(new Row(11, null));
+        assertThat(store.rows.get(2L)).isEqualTo(new Row(20, null));
+        buffer.close();
+    }
+
+    @Test
+    @DisplayName("maxPending을 넘으면 대기 후 거절, flush가 끝나면 다시 받음")
+    public void backpressure() throws Exception {
+        CountDownLatch flushing = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        FakeMemberStore store = new FakeMemberStore(0) {
+            @Override
+            public void flush(Collection<MemberUpdate> updates) {
+                flushing.countDown();
+                try {
+                    resume.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                super.flush(updates);
+            }
+        };
+        MemberWriteBehindBuffer buffer = new MemberWriteBehindBuffer(store, 4, 10, Duration.ofMillis(100), NEVER);
+
+        for (long id = 1; id <= 10; id++) {
+            buffer.updateAge(id, 1);
+        }
+        assertThat(flushing.await(5, TimeUnit.SECONDS)).isTrue(); // 절반을 넘어서 비동기 flush 시작
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> buffer.updateAge(11L, 1)).isInstanceOf(RejectedExecutionException.class);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(Duration.ofMillis(100).toNanos());
+        assertThat(buffer.pending()).isEqualTo(10);
+
+        resume.countDown();
+        buffer.updateAge(11L, 1); // flush가 끝나면 공간이 생김
+        buffer.close();
+
+        assertThat(store.rows).hasSize(11);
+    }
+
+    /**
+     * flush 도중 장애(일부만 반영하고 예외, 아무것도 반영 못 하고 예외)가 나도
+     * - 받은 변경은 유실되지 않고
+     * - 같은 member에 대해 이전 값이 나중 값을 덮어쓰지 않음
+     */
+    @Test
+    @DisplayName("flush 장애가 나도 마지막 값이 반영되고 값이 뒤로 가지 않음")
+    public void crashConsistency() throws Exception {
+        int threads = 8;
+        int membersPerThread = 50;
+        int updatesPerThread = 20_000;
+        FakeMemberStore store = new FakeMemberStore(0.3);
+        MemberWriteBehindBuffer buffer = new MemberWriteBehindBuffer(store, 16, 200, Duration.ofSeconds(10), Duration.ofMillis(1));
+
+        // 스레드마다 자기 member만 증가하는 값으로 변경 (같은 member의 변경 순서가 정해짐)
+        Map<Long, Integer> lastAges = new ConcurrentHashMap<>();
+        Map<Long, Long> lastTeams = new ConcurrentHashMap<>();
+        run(threads, thread -> {
+            Random random = new Random(thread);
+            for (int seq = 1; seq <= updatesPerThread; seq++) {
+                long memberId = (long) thread * membersPerThread + random.nextInt(membersPerThread);
+                if (seq % 3 == 0) {
+                    long teamId = seq;
+                    buffer.changeTeam(memberId, teamId);
+                    lastTeams.put(memberId, teamId);
+                } else {
+                    buffer.updateAge(memberId, seq);
+                    lastAges.put(memberId, seq);
+                }
+            }
+        });
+
+        store.failureRate = 0; // 장애 복구 후 종료
+        buffer.close();
+
+        assertThat(store.failures.get()).isPositive();
+        assertThat(store.backwards.get()).isZero();
+        assertThat(buffer.pending()).isZero();
+        lastAges.forEach((memberId, age) -> assertThat(store.rows.get(memberId).age()).isEqualTo(age));
+        lastTeams.forEach((memberId, teamId) -> assertThat(store.rows.get(memberId).teamId()).isEqualTo(teamId));
+        assertThatThrownBy(() -> buffer.updateAge(1L, 1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("종료 시 flush가 실패하면 남은 변경 수가 남음")
+    public void closeFailure() throws Exception {
+        FakeMemberStore store = new FakeMemberStore(1);
+        MemberWriteBehindBuffer buffer = new MemberWriteBehindBuffer(store, 4, 100, Duration.ofMillis(100), NEVER);
+        buffer.updateAge(1L, 10);
+        buffer.updateAge(2L, 20);
+
+        assertThatThrownBy(buffer::close).isInstanceOf(IllegalStateException.class);
+        assertThat(buffer.pending()).isEqualTo(2);
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("스레드 수, stripe 수별 처리량")
+    public void contentionBenchmark() throws Exception {
+        for (int threads : new int[]{1, 4, 16}) {
+            for (int stripes : new int[]{1, 16, 64}) {
+                report(threads, stripes);
+            }
+        }
+    }
+
+    private void report(int threads, int stripes) throws Exception {
+        int updatesPerThread = 200_000;
+        FakeMemberStore store = new FakeMemberStore(0);
+        MemberWriteBehindBuffer buffer = new MemberWriteBehindBuffer(store, stripes, 10_000, Duration.ofSeconds(10), Duration.ofMillis(10));
+
+        long start = System.nanoTime();
+        run(threads, thread -> {
+            Random random = new Random(thread);
+            for (int i = 0; i < updatesPerThread; i++) {
+                buffer.updateAge((long) random.nextInt(1000), i);
+            }
+        });
+        buffer.close();
+        long elapsed = System.nanoTime() - start;
+
+        long updates = (long) threads * updatesPerThread;
+        log.info("threads={}, stripes={}: {} updates/s, flushed rows {} ({} updates/row)",
+                threads, stripes, updates * 1_000_000_000L / elapsed,
+                store.flushedRows.get(), updates / Math.max(1, store.flushedRows.get()));
+
+        assertThat(store.flushedRows.get()).isLessThanOrEqualTo(updates);
+        assertThat(store.rows).hasSizeLessThanOrEqualTo(1000);
+    }
+
+    private void run(int threads, ThreadTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    interface ThreadTask {
+        void run(int thread) throws Exception;
+    }
+
+    record Row(Integer age, Long teamId) {
+    }
+
+    /**
+     * member 테이블 대신 쓰는 저장소
+     * failureRate 확률로 일부만 반영하고 예외를 던짐 (트랜잭션 없이 중간에 죽은 경우)
+     * 변경 값이 증가하는 순서라는 가정으로 값이 작아지면 backwards를 셈
+     */
+    static class FakeMemberStore implements MemberUpdateFlusher {
+
+        final Map<Long, Row> rows = new ConcurrentHashMap<>();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger backwards = new AtomicInteger();
+        final AtomicLong flushedRows = new AtomicLong();
+        final Random random = new Random(0);
+        volatile double failureRate;
+
+        FakeMemberStore(double failureRate) {
+            this.failureRate = failureRate;
+        }
+
+        @Override
+        public void flush(Collection<MemberUpdate> updates) {
+            boolean fail = random.nextDouble() < failureRate;
+            int applied = fail ? random.nextInt(updates.size() + 1) : updates.size();
+            Iterator<MemberUpdate> iterator = updates.iterator();
+            for (int i = 0; i < applied; i++) {
+                apply(iterator.next());
+            }
+            if (fail) {
+                failures.incrementAndGet();
+                throw new IllegalStateException("flush failed after " + applied + " rows");
+            }
+            flushedRows.addAndGet(updates.size());
+        }
+
+        private void apply(MemberUpdate update) {
+            Row before = rows.getOrDefault(update.getMemberId(), new Row(null, null));
+            Row after = new Row(
+                    update.getAge() != null ? update.getAge() : before.age(),
+                    update.isTeamChanged() ? update.getTeamId() : before.teamId());
+            if (isBackwards(before.age(), after.age()) || isBackwards(before.teamId(), after.teamId())) {
+                backwards.incrementAndGet();
+            }
+            rows.put(update.getMemberId(), after);
+        }
+
+        private boolean isBackwards(Number before, Number after) {
+            return before != null && after != null && after.longValue() < before.longValue();
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package study.jpaquerydsl.repository;
+
+import com.querydsl.jpa.impl.JPAQuery;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import com.querydsl.sql.SQLQueryFactory;
+import org.hibernate.query.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static study.jpaquerydsl.entity.QMember.member;
+
+@SpringBootTest
+@Transactional
+class QueryDeadlineTest {
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    @Autowired
+    SQLQueryFactory sqlQueryFactory;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    MemberWindowPageRepository memberWindowPageRepository;
+
+    @AfterEach
+    public void after() {
+        QueryDeadline.clear();
+    }
+
+    @Test
+    @DisplayName("남은 시간을 초 단위로 올림해서 타임아웃 설정")
+    public void timeoutHint() throws Exception {
+        QueryDeadline.start(Duration.ofMillis(1500));
+
+        JPAQuery<?> query = queryFactory.selectFrom(member);
+
+        assertThat(query.createQuery().unwrap(Query.class).getTimeout()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("마감 시간이 지났으면 쿼리를 실행하지 않음")
+    public void expired() throws Exception {
+        QueryDeadline.start(Duration.ZERO);
+
+        assertThatThrownBy(() -> memberRepository.search(new MemberSearchCondition()))
+                .isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("마감 시간이 없으면 타임아웃 없음")
+    public void noDeadline() throws Exception {
+        JPAQuery<?> query = queryFactory.selectFrom(member);
+
+        assertThat(query.createQuery().unwrap(Query.class).getTimeout()).isNull();
+    }
+
+    @Test
+    @DisplayName("querydsl-sql 쿼리도 마감 시간이 지났으면 실행하지 않음")
+    public void expiredSql() throws Exception {
+        QueryDeadline.start(Duration.ZERO);
+
+        assertThatThrownBy(() -> memberWindowPageRepository.searchPage(new MemberSearchCondition(), PageRequest.of(0, 10)))
+                .isInstanceOf(QueryTimeoutException.class);
+    }
+
+    @Test
+    @DisplayName("취소된 요청은 이후 쿼리를 실행하지 않음")
+    public void cancelled() throws Exception {
+        QueryDeadline.start(Duration.ofSeconds(10)).cancel();
+
+        assertThatThrownBy(() -> memberRepository.search(new MemberSearchCondition()))
+                .isInstanceOf(QueryCancelledException.class);
+        assertThatThrownBy(() -> memberWindowPageRepository.searchPage(new MemberSearchCondition(), PageRequest.of(0, 10)))
+                .isInstanceOf(QueryCancelledException.class);
+    }
+
+    @Test
+    @DisplayName("다른 스레드에서 cancel()하면 실행 중인 querydsl-sql 쿼리를 DB에서 중단")
+    public void cancelRunning() throws Exception {
+        QueryDeadline queryDeadline = QueryDeadline.start(Duration.ofSeconds(30));
+        CompletableFuture<Integer> running = CompletableFuture.supplyAsync(() -> {
+            QueryDeadline.attach(queryDeadline);
+            try {
+                return sqlQueryFactory.select(Expressions.numberTemplate(Integer.class, "sleep({0})", 10)).fetchOne();
+            } finally {
+                QueryDeadline.clear();
+            }
+        });
+        Thread.sleep(500);
+
+        long start = System.nanoTime();
+        queryDeadline.cancel();
+        running.handle((result, e) -> result).get(5, TimeUnit.SECONDS); // 중단된 sleep()은 1 또는 예외
+
+        assertThat(queryDeadline.isCancelled()).isTrue();
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+    }
+
+}
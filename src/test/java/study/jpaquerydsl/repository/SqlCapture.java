@@ -0,0 +1,74 @@
+package study.jpaquerydsl.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate가 실제로 실행하는 SQL 캡처 + 그 SQL의 실행 계획 (MySQL EXPLAIN FORMAT=JSON)
+ * 사용: @SpringBootTest(properties = SqlCapture.PROPERTY)
+ */
+public class SqlCapture implements StatementInspector {
+
+    public static final String PROPERTY =
+            "spring.jpa.properties.hibernate.session_factory.statement_inspector=study.jpaquerydsl.repository.SqlCapture";
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL); // use_sql_comments (JPQL의 ?1 포함)
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(COMMENT.matcher(sql).replaceAll("").trim());
+        }
+        return sql;
+    }
+
+    // 현재 스레드에서 실행된 SQL (실행 순서)
+    public static List<String> capture(Runnable action) {
+        List<String> captured = new ArrayList<>();
+        CAPTURED.set(captured);
+        try {
+            action.run();
+        } finally {
+            CAPTURED.remove();
+        }
+        return captured;
+    }
+
+    /**
+     * 캡처한 SQL을 같은 커넥션에서 EXPLAIN, params는 ? 순서대로 (where 조건, limit/offset)
+     * Connector/J 클라이언트 prepared statement라 EXPLAIN에도 파라미터 바인딩 가능
+     */
+    public static JsonNode explain(EntityManager em, String sql, Object... params) {
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        if (placeholders != params.length) {
+            throw new IllegalArgumentException("파라미터 수가 다릅니다: " + placeholders + " != " + params.length + " (" + sql + ")");
+        }
+        return em.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("explain format=json " + sql)) {
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    return OBJECT_MAPPER.readTree(rs.getString(1));
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+    }
+
+}
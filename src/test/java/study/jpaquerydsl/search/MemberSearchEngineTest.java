@@ -0,0 +1,173 @@
+package study.jpaquerydsl.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+import study.jpaquerydsl.entity.Member;
+import study.jpaquerydsl.entity.Team;
+import study.jpaquerydsl.listener.MemberDataChangedEvent;
+import study.jpaquerydsl.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class MemberSearchEngineTest {
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    JPAQueryFactory queryFactory;
+
+    // 공용 빈을 쓰면 롤백될 행이 다른 테스트의 인덱스에 남으므로 테스트마다 새로 만듦
+    // 적재, 변경 반영은 테스트 스레드(테스트 트랜잭션)에서 바로 실행
+    MemberSearchEngine memberSearchEngine;
+
+    Random random = new Random(1209);
+    List<Team> teams = new ArrayList<>();
+
+    @BeforeEach
+    public void before() {
+        for (int i = 0; i < 5; i++) {
+            Team team = new Team("team" + i);
+            em.persist(team);
+            teams.add(team);
+        }
+        for (int i = 0; i < 300; i++) {
+            Team team = random.nextInt(10) == 0 ? null : teams.get(random.nextInt(teams.size()));
+            em.persist(new Member("member" + random.nextInt(100), random.nextInt(60), team));
+        }
+        em.flush();
+        em.clear();
+
+        memberSearchEngine = new MemberSearchEngine(queryFactory, memberRepository, Runnable::run);
+        memberSearchEngine.reload();
+    }
+
+    @AfterEach
+    public void after() {
+        memberSearchEngine.close();
+    }
+
+    @Test
+    @DisplayName("임의의 조건에 대해 DB 검색 결과와 같음")
+    public void sameAsDatabase() throws Exception {
+        assertThat(memberSearchEngine.isLoaded()).isTrue();
+
+        for (int i = 0; i < 500; i++) {
+            MemberSearchCondition condition = randomCondition();
+
+            List<MemberTeamDto> expected = memberRepository.search(condition);
+            List<MemberTeamDto> actual = memberSearchEngine.search(condition);
+
+            assertThat(actual).as(condition.toString()).containsExactlyInAnyOrderElementsOf(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("페이징 결과의 전체 건수가 DB와 같음")
+    public void searchPage() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            MemberSearchCondition condition = randomCondition();
+            PageRequest pageRequest = PageRequest.of(random.nextInt(3), 1 + random.nextInt(20));
+
+            Page<MemberTeamDto> expected = memberRepository.searchPage(condition, pageRequest);
+            Page<MemberTeamDto> actual = memberSearchEngine.searchPage(condition, pageRequest);
+
+            assertThat(actual.getTotalElements()).as(condition.toString()).isEqualTo(expected.getTotalElements());
+            assertThat(actual.getContent()).hasSameSizeAs(expected.getContent());
+            assertThat(memberRepository.search(condition)).containsAll(actual.getContent());
+        }
+    }
+
+    @Test
+    @DisplayName("회원, 팀 단건 변경은 재적재 없이 반영")
+    public void applyChanges() throws Exception {
+        List<Member> members = em.createQuery("select m from Member m order by m.id", Member.class)
+                .setMaxResults(20)
+                .getResultList();
+        Member moved = members.get(0);
+        moved.changeTeam(em.find(Team.class, teams.get(4).getId()));
+        moved.setAge(99);
+        Member removed = members.get(1);
+        em.remove(removed);
+        Member added = new Member("member7", 33, em.find(Team.class, teams.get(0).getId()));
+        em.persist(added);
+        Team renamed = em.find(Team.class, teams.get(1).getId());
+        renamed.setName("team9");
+        em.flush();
+        em.clear();
+
+        memberSearchEngine.onChanged(new MemberDataChangedEvent(Member.class, moved.getId()));
+        memberSearchEngine.onChanged(new MemberDataChangedEvent(Member.class, removed.getId()));
+        memberSearchEngine.onChanged(new MemberDataChangedEvent(Member.class, added.getId()));
+        memberSearchEngine.onChanged(new MemberDataChangedEvent(Team.class, renamed.getId()));
+
+        assertThat(memberSearchEngine.isLoaded()).isTrue();
+        MemberSearchCondition team9 = new MemberSearchCondition();
+        team9.setTeamName("team9");
+        assertThat(memberSearchEngine.search(team9)).containsExactlyInAnyOrderElementsOf(memberRepository.search(team9));
+        assertThat(memberSearchEngine.search(team9)).isNotEmpty();
+
+        for (int i = 0; i < 500; i++) {
+            MemberSearchCondition condition = randomCondition();
+            assertThat(memberSearchEngine.search(condition)).as(condition.toString())
+                    .containsExactlyInAnyOrderElementsOf(memberRepository.search(condition));
+
+            PageRequest pageRequest = PageRequest.of(random.nextInt(3), 1 + random.nextInt(20));
+            assertThat(memberSearchEngine.searchPage(condition, pageRequest).getContent()).as(condition.toString())
+                    .containsExactlyElementsOf(memberRepository.searchPage(condition, pageRequest).getContent());
+        }
+    }
+
+    @Test
+    @DisplayName("벌크 변경은 재적재")
+    public void bulkReload() throws Exception {
+        em.createQuery("update Member m set m.age = m.age + 1").executeUpdate();
+        em.clear();
+
+        memberSearchEngine.onChanged(MemberDataChangedEvent.bulk());
+
+        assertThat(memberSearchEngine.isLoaded()).isTrue(); // 호출 스레드에서 바로 재적재
+        MemberSearchCondition condition = new MemberSearchCondition();
+        condition.setAgeGoe(60);
+        assertThat(memberSearchEngine.search(condition)).containsExactlyInAnyOrderElementsOf(memberRepository.search(condition));
+    }
+
+    private MemberSearchCondition randomCondition() {
+        MemberSearchCondition condition = new MemberSearchCondition();
+        if (random.nextInt(3) == 0) {
+            condition.setUsername("member" + random.nextInt(120));
+        }
+        if (random.nextInt(2) == 0) {
+            condition.setTeamName("team" + random.nextInt(10)); // team9는 이름 변경
+        }
+        if (random.nextInt(2) == 0) {
+            condition.setAgeGoe(random.nextInt(70) - 5);
+        }
+        if (random.nextInt(2) == 0) {
+            condition.setAgeLoe(random.nextInt(70) - 5);
+        }
+        return condition;
+    }
+
+}
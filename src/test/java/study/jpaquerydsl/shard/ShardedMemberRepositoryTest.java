@@ -0,0 +1,278 @@
+package study.jpaquerydsl.shard;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import study.jpaquerydsl.dto.MemberSearchCondition;
+import study.jpaquerydsl.dto.MemberTeamDto;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 샤드마다 H2 내장 DB(MySQL 모드)를 따로 띄워서 테스트
+ */
+class ShardedMemberRepositoryTest {
+
+    private static final AtomicInteger DATABASE_SEQUENCE = new AtomicInteger();
+
+    @Test
+    @DisplayName("scatter-gather 결과가 전체를 정렬한 결과와 같음 (정렬, 페이징)")
+    public void scatterGather() throws Exception {
+        List<CountingDataSource> dataSources = new ArrayList<>();
+        try (ShardedMemberRepository repository = create(4, dataSources)) {
+            List<MemberTeamDto> all = insert(repository, 20, 500);
+
+            List<Sort> sorts = List.of(
+                    Sort.unsorted(),
+                    Sort.by(Sort.Direction.DESC, "age"),
+                    Sort.by("username"),
+                    Sort.by(Sort.Order.desc("username"), Sort.Order.desc("memberId")));
+            for (Sort sort : sorts) {
+                for (int page = 0; page < 5; page++) {
+                    MemberSearchCondition condition = new MemberSearchCondition();
+                    condition.setAgeGoe(20);
+                    PageRequest pageable = PageRequest.of(page, 30, sort);
+
+                    Page<MemberTeamDto> result = repository.searchPage(condition, pageable);
+
+                    List<MemberTeamDto> expected = all.stream()
+                            .filter(dto -> dto.getAge() >= 20)
+                            .sorted(comparator(sort))
+                            .toList();
+                    assertThat(result.getTotalElements()).isEqualTo(expected.size());
+                    assertThat(result.getContent()).extracting("memberId")
+                            .containsExactlyElementsOf(expected.stream()
+                                    .skip(pageable.getOffset())
+                                    .limit(pageable.getPageSize())
+                                    .map(MemberTeamDto::getMemberId)
+                                    .toList());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("teamName 조건은 그 팀이 있는 샤드에만 조회")
+    public void singleShard() throws Exception {
+        List<CountingDataSource> dataSources = new ArrayList<>();
+        try (ShardedMemberRepository repository = create(4, dataSources)) {
+            List<MemberTeamDto> all = insert(repository, 20, 500);
+            dataSources.forEach(dataSource -> dataSource.connections.set(0));
+
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setTeamName("team7");
+            Page<MemberTeamDto> result = repository.searchPage(condition, PageRequest.of(1, 5, Sort.by("age")));
+
+            List<MemberTeamDto> expected = all.stream()
+                    .filter(dto -> "team7".equals(dto.getTeamName()))
+                    .sorted(comparator(Sort.by("age")))
+                    .toList();
+            assertThat(result.getTotalElements()).isEqualTo(expected.size());
+            assertThat(result.getContent()).extracting("memberId")
+                    .containsExactlyElementsOf(expected.stream().skip(5).limit(5).map(MemberTeamDto::getMemberId).toList());
+
+            int teamShard = repository.shardOf(expected.get(0).getTeamId());
+            for (int i = 0; i < dataSources.size(); i++) {
+                assertThat(dataSources.get(i).connections.get()).isEqualTo(i == teamShard ? 1 : 0);
+            }
+
+            condition.setTeamName("none");
+            assertThat(repository.searchPage(condition, PageRequest.of(0, 5)).getTotalElements()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("재시작하면 기존 샤드 데이터에서 id를 이어서 사용, 같은 이름의 팀은 같은 샤드")
+    public void reopen() throws Exception {
+        List<CountingDataSource> dataSources = new ArrayList<>();
+        List<MemberTeamDto> all;
+        try (ShardedMemberRepository repository = create(2, dataSources)) {
+            all = insert(repository, 3, 10);
+        }
+
+        try (ShardedMemberRepository reopened = open(dataSources)) {
+            Long teamId = reopened.saveTeam("team0");
+            Long memberId = reopened.saveMember("member", 1, teamId);
+
+            assertThat(teamId).isNotIn(all.stream().map(MemberTeamDto::getTeamId).toList());
+            assertThat(memberId).isNotIn(all.stream().map(MemberTeamDto::getMemberId).toList());
+            assertThat(reopened.shardOf(teamId)).isEqualTo(reopened.shardOf("team0"));
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setTeamName("team0");
+            assertThat(reopened.searchPage(condition, PageRequest.of(0, 100)).getTotalElements())
+                    .isEqualTo(all.stream().filter(dto -> "team0".equals(dto.getTeamName())).count() + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("노드 여러 개가 같은 샤드를 써도 id가 겹치지 않고, 다른 노드가 만든 팀도 teamName으로 조회")
+    public void multipleNodes() throws Exception {
+        List<CountingDataSource> dataSources = new ArrayList<>();
+        try (ShardedMemberRepository node1 = create(3, dataSources);
+             ShardedMemberRepository node2 = open(dataSources)) {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<List<Long>>> futures = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    ShardedMemberRepository node = i % 2 == 0 ? node1 : node2;
+                    int thread = i;
+                    futures.add(executor.submit(() -> {
+                        List<Long> ids = new ArrayList<>();
+                        for (int j = 0; j < 150; j++) { // id 구간(100개)을 넘게
+                            Long teamId = node.saveTeam("team" + thread + "-" + j);
+                            ids.add(node.saveMember("member" + j, j, teamId));
+                            ids.add(node.saveMember("member" + j, j, null));
+                        }
+                        return ids;
+                    }));
+                }
+                Set<Long> memberIds = new HashSet<>();
+                for (Future<List<Long>> future : futures) {
+                    for (Long id : future.get(30, TimeUnit.SECONDS)) {
+                        assertThat(memberIds.add(id)).isTrue();
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+
+            MemberSearchCondition condition = new MemberSearchCondition();
+            condition.setTeamName("team1-0"); // node2가 만든 팀
+            assertThat(node1.searchPage(condition, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+            condition.setTeamName("team0-0"); // node1이 만든 팀
+            assertThat(node2.searchPage(condition, PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("샤드 수별 처리량")
+    public void benchmark() throws Exception {
+        for (int shardCount : new int[]{1, 2, 4, 8}) {
+            try (ShardedMemberRepository repository = create(shardCount, new ArrayList<>())) {
+                insert(repository, 100, 20_000);
+                report(repository, "scatter-gather", () -> new MemberSearchCondition());
+                Random random = new Random(0);
+                report(repository, "teamName", () -> {
+                    MemberSearchCondition condition = new MemberSearchCondition();
+                    condition.setTeamName("team" + random.nextInt(100));
+                    return condition;
+                });
+            }
+        }
+    }
+
+    private void report(ShardedMemberRepository repository, String name, Callable<MemberSearchCondition> conditions) throws Exception {
+        int threads = 8;
+        int requestsPerThread = 200;
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        try {
+            long start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(clients.submit(() -> {
+                    for (int j = 0; j < requestsPerThread; j++) {
+                        repository.searchPage(conditions.call(), PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "age")));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.println("shards=" + repository.shardCount() + ", " + name + ": "
+                    + (long) threads * requestsPerThread * 1_000_000_000L / elapsed + " req/s");
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private ShardedMemberRepository create(int shardCount, List<CountingDataSource> dataSources) throws SQLException {
+        List<MemberShard> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            CountingDataSource dataSource = new CountingDataSource(new DriverManagerDataSource(
+                    "jdbc:h2:mem:shard" + DATABASE_SEQUENCE.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1"));
+            dataSources.add(dataSource);
+            MemberShard shard = new MemberShard(i, dataSource);
+            shard.initSchema();
+            shards.add(shard);
+        }
+        return new ShardedMemberRepository(shards, shardCount * 2);
+    }
+
+    // 같은 샤드 DB를 쓰는 다른 노드
+    private ShardedMemberRepository open(List<CountingDataSource> dataSources) throws SQLException {
+        List<MemberShard> shards = new ArrayList<>();
+        for (int i = 0; i < dataSources.size(); i++) {
+            shards.add(new MemberShard(i, dataSources.get(i)));
+        }
+        return new ShardedMemberRepository(shards, 2);
+    }
+
+    // 팀 teamCount개, 회원 memberCount명 (10명 중 1명은 팀 없음)
+    private List<MemberTeamDto> insert(ShardedMemberRepository repository, int teamCount, int memberCount) {
+        List<Long> teamIds = new ArrayList<>();
+        for (int i = 0; i < teamCount; i++) {
+            teamIds.add(repository.saveTeam("team" + i));
+        }
+        Random random = new Random(1);
+        List<MemberTeamDto> members = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            String username = String.format("member%05d", random.nextInt(memberCount)); // 중복 이름 포함
+            int age = random.nextInt(60);
+            int team = i % 10 == 0 ? -1 : random.nextInt(teamCount);
+            Long teamId = team < 0 ? null : teamIds.get(team);
+            Long memberId = repository.saveMember(username, age, teamId);
+            members.add(new MemberTeamDto(memberId, username, age, teamId, team < 0 ? null : "team" + team));
+        }
+        return members;
+    }
+
+    private Comparator<MemberTeamDto> comparator(Sort sort) {
+        Comparator<MemberTeamDto> comparator = null;
+        boolean ascending = true;
+        for (Sort.Order order : sort) {
+            Comparator<MemberTeamDto> next = switch (order.getProperty()) {
+                case "age" -> Comparator.comparing(MemberTeamDto::getAge);
+                case "username" -> Comparator.comparing(MemberTeamDto::getUsername);
+                case "memberId" -> Comparator.comparing(MemberTeamDto::getMemberId);
+                default -> throw new IllegalArgumentException(order.getProperty());
+            };
+            ascending = order.isAscending();
+            next = ascending ? next : next.reversed();
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<MemberTeamDto> id = Comparator.comparing(MemberTeamDto::getMemberId);
+        id = ascending ? id : id.reversed();
+        return comparator == null ? id : comparator.thenComparing(id);
+    }
+
+    static class CountingDataSource extends DelegatingDataSource {
+
+        final AtomicInteger connections = new AtomicInteger();
+
+        CountingDataSource(DriverManagerDataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            connections.incrementAndGet();
+            return super.getConnection();
+        }
+
+    }
+
+}
@@ -0,0 +1,135 @@
+package study.jpaquerydsl.web;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveConcurrencyLimiterTest.class);
+
+    static final int POOL_SIZE = 10;   // Hikari 기본 pool 크기
+    static final int CLIENTS = 64;
+
+    @Test
+    @DisplayName("한도 안에서는 통과, 한도를 넘으면 maxWait 후 거절")
+    public void acquire() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.acquire()).isTrue();
+        assertThat(limiter.acquire()).isFalse();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(limiter.acquire()).isTrue();
+    }
+
+    @Test
+    @DisplayName("지연이 장기 평균보다 커지면 한도를 줄이고, 다시 빨라지면 늘림 (고정 RTT 샘플)")
+    public void adjustLimit() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 0, TimeUnit.MILLISECONDS);
+
+        feed(limiter, 300, 5);
+        int fast = limiter.getLimit();
+        assertThat(fast).isGreaterThan(20);
+
+        feed(limiter, 100, 40);
+        int slow = limiter.getLimit();
+        assertThat(slow).isLessThan(20).isGreaterThanOrEqualTo(2);
+        assertThat(limiter.acquire()).isFalse(); // 한도를 넘으면 바로 거절 (maxWait 0)
+
+        feed(limiter, 100, 5);
+        assertThat(limiter.getLimit()).isGreaterThan(slow);
+    }
+
+    @Test
+    @Tag("perf")
+    @DisplayName("DB가 느려지면 한도가 줄고, 통과한 요청의 p99가 제한 없는 경우보다 작음")
+    public void boundedLatencyUnderSlowDatabase() throws Exception {
+        Result unlimited = run(null);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 2, 200, 20, TimeUnit.MILLISECONDS);
+        Result limited = run(limiter);
+
+        log.info("unlimited p99 = {}ms, limited p99 = {}ms, limit = {}, rejected = {}",
+                unlimited.p99Millis, limited.p99Millis, limiter.getLimit(), limited.rejected);
+
+        assertThat(limited.rejected).isPositive();
+        assertThat(limiter.getLimit()).isLessThan(20);
+        assertThat(limited.p99Millis).isLessThan(unlimited.p99Millis);
+    }
+
+    // 한도까지 채운 상태에서 RTT 샘플 하나씩 반납 (한도를 다 쓰고 있으므로 appLimited 아님)
+    private void feed(AdaptiveConcurrencyLimiter limiter, int samples, long rttMillis) throws InterruptedException {
+        for (int i = 0; i < samples; i++) {
+            while (limiter.acquire()) {
+            }
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        }
+        while (limiter.acquire()) {
+        }
+    }
+
+    /**
+     * 커넥션 POOL_SIZE개인 DB에 CLIENTS개 스레드가 요청, 중간부터 쿼리 지연 5ms -> 40ms
+     */
+    private Result run(AdaptiveConcurrencyLimiter limiter) throws Exception {
+        Semaphore connections = new Semaphore(POOL_SIZE, true);
+        long startedAt = System.nanoTime();
+        long duration = TimeUnit.MILLISECONDS.toNanos(1500);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong rejected = new AtomicLong();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            executor.execute(() -> {
+                while (System.nanoTime() - startedAt < duration) {
+                    long requestStart = System.nanoTime();
+                    try {
+                        if (limiter != null && !limiter.acquire()) {
+                            rejected.incrementAndGet();
+                            Thread.sleep(5); // 클라이언트 backoff
+                            continue;
+                        }
+                        connections.acquire();
+                        try {
+                            boolean slow = System.nanoTime() - startedAt > duration / 3;
+                            Thread.sleep(slow ? 40 : 5);
+                        } finally {
+                            connections.release();
+                        }
+                        long latency = System.nanoTime() - requestStart;
+                        if (limiter != null) {
+                            limiter.release(latency);
+                        }
+                        latencies.add(latency);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long p99 = sorted.get((int) (sorted.size() * 0.99) - 1);
+        return new Result(TimeUnit.NANOSECONDS.toMillis(p99), rejected.get());
+    }
+
+    record Result(long p99Millis, long rejected) {
+    }
+
+}
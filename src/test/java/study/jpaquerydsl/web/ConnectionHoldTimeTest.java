@@ -0,0 +1,99 @@
+package study.jpaquerydsl.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 실제 커넥션 반납 시점을 보려고 테스트 트랜잭션 없이 실행, 데이터를 커밋하고 끝나면 정리
+ */
+@SpringBootTest(properties = "member.cost-guard.enabled=false")
+@AutoConfigureMockMvc
+class ConnectionHoldTimeTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ApplicationContext context;
+
+    @BeforeEach
+    public void before() {
+        jdbcTemplate.update("insert into team (team_id, name, member_count) values (1, 'team1', 200)");
+        List<Object[]> members = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            members.add(new Object[]{(long) i, "member" + i, i % 100, 1L});
+        }
+        jdbcTemplate.batchUpdate("insert into member (member_id, username, age, team_id) values (?, ?, ?, ?)", members);
+    }
+
+    @AfterEach
+    public void after() {
+        jdbcTemplate.update("delete from member");
+        jdbcTemplate.update("delete from team");
+    }
+
+    @Test
+    @DisplayName("open-in-view 없이 요청마다 커넥션 하나를 서비스 트랜잭션 동안만 점유")
+    public void holdTime() throws Exception {
+        assertThat(context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+
+        search(get("/v2/members").param("teamName", "team1").param("size", "20"));
+        Timer hold = meterRegistry.get("member.request.connection.hold").tag("uri", "/v2/members").timer();
+        DistributionSummary count = meterRegistry.get("member.request.connection.count").tag("uri", "/v2/members").summary();
+        long requestsBefore = hold.count();
+        double holdBefore = hold.totalTime(TimeUnit.NANOSECONDS);
+        double borrowedBefore = count.totalAmount();
+
+        int requests = 100;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            search(get("/v2/members").param("teamName", "team1").param("page", String.valueOf(i % 10)).param("size", "20"));
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double held = hold.totalTime(TimeUnit.NANOSECONDS) - holdBefore;
+
+        assertThat(hold.count() - requestsBefore).isEqualTo(requests);
+        assertThat(count.totalAmount() - borrowedBefore).isEqualTo(requests); // content + count 쿼리가 커넥션 하나
+        assertThat(held).isLessThan(elapsed);
+    }
+
+    // 검색 API는 Callable, 비동기 dispatch가 끝나야 기록됨
+    private void search(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+    }
+
+}